@@ -0,0 +1,31 @@
+package com.crm.common.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 集群单节点执行的定时任务
+ * 标注在 @Scheduled 方法上，每次触发时先在 Redis 中获取租约，只有获得租约的节点执行，其余节点跳过
+ *
+ * @author crm
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JobLock {
+    /**
+     * 任务名，默认为 类名.方法名
+     */
+    String name() default "";
+
+    /**
+     * 租约时长（毫秒），执行期间按 1/3 间隔自动续约，节点宕机后最迟在该时长后释放
+     */
+    long leaseMs() default 60_000;
+
+    /**
+     * 最短持有时长（毫秒），任务很快结束时租约保留到该时长，避免时钟偏差导致同一次触发在其他节点再执行一次
+     */
+    long minHoldMs() default 10_000;
+}
@@ -0,0 +1,46 @@
+package com.crm.common.aop;
+
+import com.crm.common.lock.JobLease;
+import com.crm.common.lock.JobLeaseManager;
+import lombok.AllArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * 定时任务租约切面，处理 {@link JobLock}
+ *
+ * @author crm
+ */
+@Aspect
+@Component
+@AllArgsConstructor
+public class JobLockAspect {
+    private final JobLeaseManager jobLeaseManager;
+
+    @Around("@annotation(jobLock)")
+    public Object around(ProceedingJoinPoint joinPoint, JobLock jobLock) throws Throwable {
+        String job = jobLock.name().isEmpty()
+                ? joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName()
+                : jobLock.name();
+        JobLease lease = jobLeaseManager.tryAcquire(job, jobLock.leaseMs());
+        if (lease == null) {
+            jobLeaseManager.recordSkip(job);
+            return null;
+        }
+        ScheduledFuture<?> renewal = jobLeaseManager.keepAlive(lease, jobLock.leaseMs());
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            renewal.cancel(false);
+            jobLeaseManager.recordRun(lease, System.currentTimeMillis() - lease.acquiredAt(), failed);
+            jobLeaseManager.release(lease, jobLock.minHoldMs());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.crm.common.aop;
+
+import com.crm.common.region.IpRegionResolver;
+import com.crm.entity.OperLog;
+import com.crm.mapper.OperLogMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作日志异步写入
+ * 请求线程只负责入队，后台线程按条数或时间间隔批量插入 sys_oper_log，
+ * 审计接口的响应时间不再受数据库写入影响
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+public class OperLogAsyncWriter {
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum BackpressurePolicy {
+        /**
+         * 丢弃新日志
+         */
+        DROP,
+        /**
+         * 阻塞请求线程，直到有空位或超时
+         */
+        BLOCK,
+        /**
+         * 队列超过高水位后按比例采样，满时丢弃
+         */
+        SAMPLE
+    }
+
+    private final OperLogMapper operLogMapper;
+    private final IpRegionResolver ipRegionResolver;
+
+    @Value("${crm.oper-log.capacity:4096}")
+    private int capacity;
+
+    @Value("${crm.oper-log.batch-size:200}")
+    private int batchSize;
+
+    @Value("${crm.oper-log.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${crm.oper-log.policy:DROP}")
+    private BackpressurePolicy policy;
+
+    @Value("${crm.oper-log.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    /**
+     * SAMPLE 策略下，超过高水位后每 N 条保留 1 条
+     */
+    @Value("${crm.oper-log.sample-rate:10}")
+    private int sampleRate;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private BlockingQueue<OperLog> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    public OperLogAsyncWriter(OperLogMapper operLogMapper, IpRegionResolver ipRegionResolver) {
+        this.operLogMapper = operLogMapper;
+        this.ipRegionResolver = ipRegionResolver;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        worker = new Thread(this::drainLoop, "oper-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        // 停机前写完剩余日志
+        List<OperLog> rest = new ArrayList<>(queue.size());
+        queue.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += batchSize) {
+            flush(rest.subList(i, Math.min(rest.size(), i + batchSize)));
+        }
+    }
+
+    /**
+     * 提交一条操作日志，按背压策略决定入队、阻塞或丢弃
+     *
+     * @return 是否入队成功
+     */
+    public boolean submit(OperLog operLog) {
+        boolean accepted;
+        switch (policy) {
+            case BLOCK -> {
+                try {
+                    accepted = queue.offer(operLog, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    accepted = false;
+                }
+            }
+            case SAMPLE -> {
+                boolean aboveHighWater = queue.size() >= capacity * 3 / 4;
+                accepted = (!aboveHighWater || sampleCounter.incrementAndGet() % sampleRate == 0) && queue.offer(operLog);
+            }
+            default -> accepted = queue.offer(operLog);
+        }
+        if (accepted) {
+            enqueued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    /**
+     * 写入统计：入队、丢弃、已写入条数及当前积压
+     */
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("enqueued", enqueued.get());
+        stats.put("dropped", dropped.get());
+        stats.put("flushed", flushed.get());
+        stats.put("pending", (long) queue.size());
+        return stats;
+    }
+
+    private void drainLoop() {
+        List<OperLog> batch = new ArrayList<>(batchSize);
+        long deadline = System.currentTimeMillis() + flushIntervalMs;
+        while (running) {
+            try {
+                long wait = deadline - System.currentTimeMillis();
+                OperLog operLog = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                if (operLog != null) {
+                    batch.add(operLog);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (batch.size() >= batchSize || System.currentTimeMillis() >= deadline) {
+                    flush(batch);
+                    batch.clear();
+                    deadline = System.currentTimeMillis() + flushIntervalMs;
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(List<OperLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            for (OperLog operLog : batch) {
+                operLog.setOperLocation(ipRegionResolver.resolve(operLog.getOperIp()));
+            }
+            operLogMapper.insertBatch(batch);
+            flushed.addAndGet(batch.size());
+        } catch (Exception e) {
+            dropped.addAndGet(batch.size());
+            log.error("批量写入操作日志失败, 条数: {}", batch.size(), e);
+        }
+    }
+}
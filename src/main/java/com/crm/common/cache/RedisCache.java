@@ -2,14 +2,26 @@ package com.crm.common.cache;
 
 
 import jakarta.annotation.Resource;
+import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * @author crm
@@ -18,6 +30,8 @@ import java.util.concurrent.TimeUnit;
 public class RedisCache {
     @Resource
     private RedisTemplate<String, Object> redisTemplate;
+    @Resource
+    private RedisMessageListenerContainer listenerContainer;
 
     /**
      * 默认过期时长为24小时，单位：秒
@@ -36,10 +50,14 @@ public class RedisCache {
      */
     public final static long NOT_EXPIRE = -1L;
 
+    /**
+     * 写入并设置过期时间，一条 SET EX 命令完成
+     */
     public void set(String key, Object value, long expire) {
-        redisTemplate.opsForValue().set(key, value);
         if (expire != NOT_EXPIRE) {
-            expire(key, expire);
+            redisTemplate.opsForValue().set(key, value, expire, TimeUnit.SECONDS);
+        } else {
+            redisTemplate.opsForValue().set(key, value);
         }
     }
 
@@ -47,22 +65,109 @@ public class RedisCache {
         set(key, value, DEFAULT_EXPIRE);
     }
 
+    /**
+     * 读取并刷新过期时间，一条 GETEX 命令完成
+     */
     public Object get(String key, long expire) {
-        Object value = redisTemplate.opsForValue().get(key);
         if (expire != NOT_EXPIRE) {
-            expire(key, expire);
+            return redisTemplate.opsForValue().getAndExpire(key, expire, TimeUnit.SECONDS);
         }
-        return value;
+        return redisTemplate.opsForValue().get(key);
     }
 
     public Object get(String key) {
         return get(key, NOT_EXPIRE);
     }
 
+    /**
+     * 写入新值并返回旧值，同时设置过期时间（SET EX GET）
+     */
+    public Object getAndSet(String key, Object value, long expire) {
+        return redisTemplate.opsForValue().setGet(key, value, expire, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 批量读取，返回值与 keys 顺序一致，不存在的键对应 null
+     */
+    public List<Object> multiGet(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+
+    /**
+     * 批量写入并设置相同的过期时间，所有 SET EX 在一次往返中发送
+     */
+    public void multiSet(Map<String, Object> values, long expire) {
+        if (values.isEmpty()) {
+            return;
+        }
+        if (expire == NOT_EXPIRE) {
+            redisTemplate.opsForValue().multiSet(values);
+            return;
+        }
+        pipeline(operations -> values.forEach((key, value) -> operations.opsForValue().set(key, value, expire, TimeUnit.SECONDS)));
+    }
+
+    /**
+     * 管道批量执行：commands 中的命令一次性发送，返回各命令结果
+     */
+    public List<Object> pipeline(Consumer<RedisOperations<String, Object>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 在 MULTI/EXEC 中执行写入并设置过期时间，整体通过管道一次往返发送
+     */
+    private void writeWithExpire(String key, long expire, Consumer<RedisOperations<String, Object>> write) {
+        if (expire == NOT_EXPIRE) {
+            write.accept(redisTemplate);
+            return;
+        }
+        pipeline(operations -> {
+            operations.multi();
+            write.accept(operations);
+            operations.expire(key, expire, TimeUnit.SECONDS);
+            operations.exec();
+        });
+    }
+
     public Long increment(String key) {
         return redisTemplate.opsForValue().increment(key);
     }
 
+    /**
+     * 键不存在时写入并设置毫秒级过期时间（SET NX PX），返回是否写入成功；
+     * 值按字符串原样写入，不经过 value 序列化器，供 Lua 脚本直接比较
+     */
+    public Boolean setIfAbsent(String key, String value, long expireMillis) {
+        RedisSerializer<String> serializer = RedisSerializer.string();
+        return redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                serializer.serialize(key), serializer.serialize(value),
+                Expiration.milliseconds(expireMillis), RedisStringCommands.SetOption.ifAbsent()));
+    }
+
+    /**
+     * 执行 Lua 脚本，参数与返回值按字符串序列化，与 value 序列化器对数值的编码方式无关
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        Object[] stringArgs = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            stringArgs[i] = String.valueOf(args[i]);
+        }
+        return redisTemplate.execute(script, RedisSerializer.string(), (RedisSerializer<T>) RedisSerializer.string(),
+                keys, stringArgs);
+    }
+
     public Boolean hasKey(String key) {
         return redisTemplate.hasKey(key);
     }
@@ -89,11 +194,7 @@ public class RedisCache {
     }
 
     public void hMSet(String key, Map<String, Object> map, long expire) {
-        redisTemplate.opsForHash().putAll(key, map);
-
-        if (expire != NOT_EXPIRE) {
-            expire(key, expire);
-        }
+        writeWithExpire(key, expire, operations -> operations.opsForHash().putAll(key, map));
     }
 
     public void hSet(String key, String field, Object value) {
@@ -101,11 +202,7 @@ public class RedisCache {
     }
 
     public void hSet(String key, String field, Object value, long expire) {
-        redisTemplate.opsForHash().put(key, field, value);
-
-        if (expire != NOT_EXPIRE) {
-            expire(key, expire);
-        }
+        writeWithExpire(key, expire, operations -> operations.opsForHash().put(key, field, value));
     }
 
     public void expire(String key, long expire) {
@@ -121,14 +218,24 @@ public class RedisCache {
     }
 
     public void leftPush(String key, Object value, long expire) {
-        redisTemplate.opsForList().leftPush(key, value);
-
-        if (expire != NOT_EXPIRE) {
-            expire(key, expire);
-        }
+        writeWithExpire(key, expire, operations -> operations.opsForList().leftPush(key, value));
     }
 
     public Object rightPop(String key) {
         return redisTemplate.opsForList().rightPop(key);
     }
+
+    public void publish(String channel, Object message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 订阅频道，消息体使用 value 序列化器反序列化后交给 handler
+     */
+    public void subscribe(String channel, Consumer<Object> handler) {
+        RedisSerializer<?> serializer = redisTemplate.getValueSerializer();
+        listenerContainer.addMessageListener(
+                (message, pattern) -> handler.accept(serializer.deserialize(message.getBody())),
+                new ChannelTopic(channel));
+    }
 }
\ No newline at end of file
@@ -23,4 +23,53 @@ public class RedisKeys {
         return "sys:manager:" + id;
     }
 
+    /**
+     * 登录用户本地缓存失效通知频道
+     */
+    public static String getTokenInvalidateChannel() {
+        return "sys:channel:token-invalidate";
+    }
+
+    /**
+     * 部门层级本地缓存失效通知频道
+     */
+    public static String getDepartmentInvalidateChannel() {
+        return "sys:channel:department-invalidate";
+    }
+
+    /**
+     * 角色权限版本号
+     */
+    public static String getPermissionVersionKey() {
+        return "sys:permission:version";
+    }
+
+    /**
+     * 角色权限本地缓存失效通知频道
+     */
+    public static String getPermissionInvalidateChannel() {
+        return "sys:channel:permission-invalidate";
+    }
+
+    /**
+     * 定时任务租约
+     */
+    public static String getJobLeaseKey(String job) {
+        return "sys:job:lease:" + job;
+    }
+
+    /**
+     * 定时任务租约的防护令牌（单调递增）
+     */
+    public static String getJobFenceKey(String job) {
+        return "sys:job:fence:" + job;
+    }
+
+    /**
+     * 分页总数缓存，按 SQL 与参数的摘要区分
+     */
+    public static String getPageCountKey(String digest) {
+        return "sys:page:count:" + digest;
+    }
+
 }
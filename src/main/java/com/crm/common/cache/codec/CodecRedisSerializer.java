@@ -0,0 +1,131 @@
+package com.crm.common.cache.codec;
+
+import com.alibaba.fastjson2.JSON;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 可切换格式的 Redis 值序列化器
+ * <p>
+ * 对象写入格式：[MAGIC][版本号][标志位][数据]，标志位 FLAG_DEFLATE 表示数据经过压缩；
+ * 字符串、数字、布尔值仍写为 JSON 文本，保证 INCR 计数和 Lua 脚本参数比较可用。
+ * 读取时首字节不是 MAGIC 的数据按 JSON 文本解析，兼容切换前写入的旧数据
+ *
+ * @author crm
+ */
+public class CodecRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 头部标识，JSON 文本不会以该字节开头
+     */
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte FLAG_DEFLATE = 1;
+    private static final int HEADER_LENGTH = 3;
+
+    private final RedisValueCodec writer;
+    private final Map<Byte, RedisValueCodec> readers = new HashMap<>();
+    private final int compressThreshold;
+
+    /**
+     * @param writer            写入使用的格式
+     * @param compressThreshold 编码后超过该字节数时压缩，小于 0 表示不压缩
+     * @param readers           可读取的其他格式
+     */
+    public CodecRedisSerializer(RedisValueCodec writer, int compressThreshold, RedisValueCodec... readers) {
+        this.writer = writer;
+        this.compressThreshold = compressThreshold;
+        this.readers.put(writer.version(), writer);
+        for (RedisValueCodec reader : readers) {
+            this.readers.putIfAbsent(reader.version(), reader);
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean) {
+            return JSON.toJSONBytes(value);
+        }
+        byte[] payload = writer.encode(value);
+        byte flags = 0;
+        if (compressThreshold >= 0 && payload.length > compressThreshold) {
+            byte[] compressed = deflate(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags = FLAG_DEFLATE;
+            }
+        }
+        byte[] bytes = new byte[HEADER_LENGTH + payload.length];
+        bytes[0] = MAGIC;
+        bytes[1] = writer.version();
+        bytes[2] = flags;
+        System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC || bytes.length < HEADER_LENGTH) {
+            return JSON.parse(new String(bytes, StandardCharsets.UTF_8));
+        }
+        RedisValueCodec codec = readers.get(bytes[1]);
+        if (codec == null) {
+            throw new SerializationException("不支持的 Redis 值格式版本: " + bytes[1]);
+        }
+        if ((bytes[2] & FLAG_DEFLATE) != 0) {
+            byte[] payload = inflate(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            return codec.decode(payload, 0, payload.length);
+        }
+        return codec.decode(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("Redis 值解压失败: 数据不完整");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("Redis 值解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.crm.common.cache.codec;
+
+import com.alibaba.fastjson2.JSON;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON 文本格式，与原 FastJsonRedisSerializer 的输出兼容，但不再写入类名
+ *
+ * @author crm
+ */
+public class JsonValueCodec implements RedisValueCodec {
+
+    public static final byte VERSION = 1;
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        return JSON.toJSONBytes(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) {
+        return JSON.parse(new String(bytes, offset, length, StandardCharsets.UTF_8));
+    }
+}
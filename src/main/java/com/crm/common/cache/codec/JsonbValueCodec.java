@@ -0,0 +1,31 @@
+package com.crm.common.cache.codec;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+
+/**
+ * fastjson2 JSONB 二进制格式，字段名与数值按二进制编码，体积与解析开销均小于 JSON 文本
+ *
+ * @author crm
+ */
+public class JsonbValueCodec implements RedisValueCodec {
+
+    public static final byte VERSION = 2;
+
+    @Override
+    public byte version() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        return JSONB.toBytes(value);
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) {
+        try (JSONReader reader = JSONReader.ofJSONB(bytes, offset, length)) {
+            return reader.readAny();
+        }
+    }
+}
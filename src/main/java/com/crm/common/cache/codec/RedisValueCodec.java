@@ -0,0 +1,19 @@
+package com.crm.common.cache.codec;
+
+/**
+ * Redis 值编解码格式
+ * 每种格式对应一个版本号，写入时记录在头部，读取时按版本号选择格式，更换格式后旧数据仍可读取
+ *
+ * @author crm
+ */
+public interface RedisValueCodec {
+
+    /**
+     * 格式版本号，写入头部，不同格式不能重复
+     */
+    byte version();
+
+    byte[] encode(Object value);
+
+    Object decode(byte[] bytes, int offset, int length);
+}
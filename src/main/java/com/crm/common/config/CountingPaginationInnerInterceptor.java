@@ -0,0 +1,151 @@
+package com.crm.common.config;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.ParameterUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.crm.common.cache.RedisCache;
+import com.crm.common.cache.RedisKeys;
+import com.crm.common.model.CountPage;
+import com.crm.common.model.CountStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按 CountPage 的统计方式处理分页总数，其他分页参数与 PaginationInnerInterceptor 一致：
+ * EXACT 执行 COUNT；CACHED 以 Mapper 方法、SQL 与参数的摘要为 Key 缓存 COUNT 结果；
+ * ESTIMATED 取 EXPLAIN 首行（驱动表）的 rows * filtered 作为估算值，失败时退回 COUNT；
+ * NONE 不统计，LIMIT 多取一条用于判断是否有下一页
+ *
+ * @author crm
+ */
+@Slf4j
+public class CountingPaginationInnerInterceptor extends PaginationInnerInterceptor {
+
+    private final RedisCache redisCache;
+    private final CountStrategy defaultStrategy;
+    private final long cacheSeconds;
+
+    public CountingPaginationInnerInterceptor(DbType dbType, RedisCache redisCache,
+                                              CountStrategy defaultStrategy, long cacheSeconds) {
+        super(dbType);
+        this.redisCache = redisCache;
+        this.defaultStrategy = defaultStrategy;
+        this.cacheSeconds = cacheSeconds;
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        IPage<?> page = ParameterUtils.findPage(parameter).orElse(null);
+        if (!(page instanceof CountPage<?> countPage) || resultHandler != Executor.NO_RESULT_HANDLER) {
+            return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        }
+        if (countPage.getStrategy() == null) {
+            countPage.setStrategy(defaultStrategy);
+        }
+        switch (countPage.getStrategy()) {
+            case NONE -> {
+                return true;
+            }
+            case ESTIMATED -> {
+                Long estimate = explainRows(executor, ms, parameter, boundSql);
+                if (estimate != null) {
+                    countPage.setTotal(estimate);
+                    return true;
+                }
+                countPage.setStrategy(CountStrategy.EXACT);
+                return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+            }
+            case CACHED -> {
+                String key = RedisKeys.getPageCountKey(digest(ms, parameter, boundSql));
+                Object cached = redisCache.get(key);
+                if (cached != null) {
+                    countPage.setTotal(Long.parseLong(String.valueOf(cached)));
+                    return true;
+                }
+                boolean proceed = super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+                redisCache.set(key, countPage.getTotal(), cacheSeconds);
+                return proceed;
+            }
+            default -> {
+                return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+            }
+        }
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        IPage<?> page = ParameterUtils.findPage(parameter).orElse(null);
+        if (!(page instanceof CountPage<?> countPage) || countPage.getStrategy() != CountStrategy.NONE) {
+            super.beforeQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+            return;
+        }
+        // 偏移量按原每页条数计算（见 CountPage.offset），只把 LIMIT 条数加 1
+        countPage.setSize(countPage.getLimit() + 1);
+        try {
+            super.beforeQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        } finally {
+            countPage.setSize(countPage.getLimit());
+        }
+    }
+
+    /**
+     * 在当前连接上执行 EXPLAIN，返回驱动表的预估行数
+     */
+    private Long explainRows(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql) {
+        try (PreparedStatement statement = executor.getTransaction().getConnection()
+                .prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(ms, parameter, boundSql).setParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                return Math.round(resultSet.getLong("rows") * resultSet.getDouble("filtered") / 100);
+            }
+        } catch (SQLException e) {
+            log.warn("EXPLAIN 估算分页总数失败, 改为精确统计: {}", ms.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Mapper 方法、SQL 与参数值的 MD5 摘要，相同筛选条件得到相同结果
+     */
+    private static String digest(MappedStatement ms, Object parameter, BoundSql boundSql) {
+        Configuration configuration = ms.getConfiguration();
+        MetaObject metaObject = parameter == null ? null : configuration.newMetaObject(parameter);
+        List<Object> values = new ArrayList<>(boundSql.getParameterMappings().size());
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            String property = mapping.getProperty();
+            if (boundSql.hasAdditionalParameter(property)) {
+                values.add(boundSql.getAdditionalParameter(property));
+            } else if (parameter == null) {
+                values.add(null);
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                values.add(parameter);
+            } else {
+                values.add(metaObject.getValue(property));
+            }
+        }
+        String source = ms.getId() + '\n' + boundSql.getSql() + '\n' + values;
+        return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,9 +2,10 @@ package com.crm.common.config;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
-import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
-
+import com.crm.common.cache.RedisCache;
+import com.crm.common.model.CountStrategy;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -22,9 +23,12 @@ public class MybatisPlusConfig {
      * 新的分页插件,一缓和二缓遵循mybatis的规则,需要设置 MybatisConfiguration#useDeprecatedExecutor = false 避免缓存出现问题(该属性会在旧插件移除后一同移除)
      */
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
+    public MybatisPlusInterceptor mybatisPlusInterceptor(RedisCache redisCache,
+                                                         @Value("${crm.page-count.default-strategy:EXACT}") CountStrategy defaultStrategy,
+                                                         @Value("${crm.page-count.cache-seconds:30}") long cacheSeconds) {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
-        interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.MYSQL)); // 如果配置多个插件, 切记分页最后添加
+        // 分页总数按 Query.count 选择统计方式，见 CountingPaginationInnerInterceptor
+        interceptor.addInnerInterceptor(new CountingPaginationInnerInterceptor(DbType.MYSQL, redisCache, defaultStrategy, cacheSeconds)); // 如果配置多个插件, 切记分页最后添加
         // 如果有多数据源可以不配具体类型, 否则都建议配上具体的 DbType
         return interceptor;
     }
@@ -1,16 +1,16 @@
 package com.crm.common.config;
 
-import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONWriter;
+import com.crm.common.cache.codec.CodecRedisSerializer;
+import com.crm.common.cache.codec.JsonValueCodec;
+import com.crm.common.cache.codec.JsonbValueCodec;
+import com.crm.common.cache.codec.RedisValueCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializer;
-import org.springframework.data.redis.serializer.SerializationException;
-
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 
 /**
  * @author crm
@@ -19,6 +19,18 @@ import java.nio.charset.StandardCharsets;
 @Configuration
 public class RedisConfig {
 
+    /**
+     * 值写入格式：JSONB 二进制 / JSON 文本，两种格式及旧数据均可读取
+     */
+    @Value("${crm.redis-codec.format:JSONB}")
+    private String format;
+
+    /**
+     * 编码后超过该字节数时压缩，-1 表示不压缩
+     */
+    @Value("${crm.redis-codec.compress-threshold:1024}")
+    private int compressThreshold;
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -26,7 +38,11 @@ public class RedisConfig {
         template.setKeySerializer(RedisSerializer.string());
         template.setHashKeySerializer(RedisSerializer.string());
 
-        FastJsonRedisSerializer<Object> serializer = new FastJsonRedisSerializer<>(Object.class);
+        RedisValueCodec json = new JsonValueCodec();
+        RedisValueCodec jsonb = new JsonbValueCodec();
+        CodecRedisSerializer serializer = "JSON".equalsIgnoreCase(format)
+                ? new CodecRedisSerializer(json, compressThreshold, jsonb)
+                : new CodecRedisSerializer(jsonb, compressThreshold, json);
         template.setValueSerializer(serializer);
         template.setHashValueSerializer(serializer);
 
@@ -34,30 +50,11 @@ public class RedisConfig {
         return template;
     }
 
-    static class FastJsonRedisSerializer<T> implements RedisSerializer<T> {
-        public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
-        private Class<T> clazz;
-
-        public FastJsonRedisSerializer(Class<T> clazz) {
-            super();
-            this.clazz = clazz;
-        }
-        @Override
-        public byte[] serialize(T t) throws SerializationException {
-            if (null == t) {
-                return new byte[0];
-            }
-            return JSON.toJSONString(t, JSONWriter.Feature.WriteClassName).getBytes(DEFAULT_CHARSET);
-        }
-        @Override
-        public T deserialize(byte[] bytes) throws SerializationException {
-            if (null == bytes || bytes.length == 0) {
-                return null;
-            }
-            String str = new String(bytes, DEFAULT_CHARSET);
-            return JSON.to(clazz,str);
-        }
-
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        return container;
     }
 
 }
@@ -0,0 +1,197 @@
+package com.crm.common.dept;
+
+import com.crm.common.cache.RedisCache;
+import com.crm.common.cache.RedisKeys;
+import com.crm.entity.Department;
+import com.crm.mapper.DepartmentMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 部门层级缓存
+ * 全量部门加载一次后按 parentId 建立子节点索引，保存为只读快照；
+ * 建树为 O(n)，不再逐节点递归扫描全表；子树的写操作由闭包表 t_department_closure 完成。
+ * 部门新增、修改、删除提交后丢弃快照，并通知其他节点，下次读取时重建
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+public class DepartmentHierarchy {
+
+    /**
+     * 只读快照：部门按 id 索引，子节点按 parentId 索引，均保持数据库返回顺序；
+     * generation 为开始加载时的失效计数，与当前计数不一致的快照视为过期
+     */
+    private record Snapshot(long generation, Map<Integer, Department> departments, Map<Integer, List<Integer>> children) {
+    }
+
+    private final DepartmentMapper departmentMapper;
+    private final RedisCache redisCache;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 失效计数，每次失效加 1；加载期间发生失效时，加载结果不会被当作最新快照使用
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public DepartmentHierarchy(DepartmentMapper departmentMapper, RedisCache redisCache) {
+        this.departmentMapper = departmentMapper;
+        this.redisCache = redisCache;
+    }
+
+    @PostConstruct
+    public void subscribeInvalidation() {
+        redisCache.subscribe(RedisKeys.getDepartmentInvalidateChannel(), message -> discard());
+    }
+
+    /**
+     * 所有部门，按数据库返回顺序
+     */
+    public List<Department> list() {
+        return new ArrayList<>(snapshot().departments().values());
+    }
+
+    /**
+     * 从 parentId 为 rootParentId 的部门开始构建整棵树
+     */
+    public List<Department> tree(Integer rootParentId) {
+        Snapshot current = snapshot();
+        List<Department> roots = new ArrayList<>();
+        for (Integer id : current.children().getOrDefault(rootParentId, Collections.emptyList())) {
+            roots.add(copyTree(current, id, department -> true));
+        }
+        return roots;
+    }
+
+    /**
+     * 用满足条件的部门构建树：层级最小的部门作为根，子节点只保留同样满足条件的部门
+     */
+    public List<Department> filteredTree(Predicate<Department> filter) {
+        Snapshot current = snapshot();
+        int minLevel = Integer.MAX_VALUE;
+        for (Department department : current.departments().values()) {
+            if (filter.test(department) && department.getLevel() != null) {
+                minLevel = Math.min(minLevel, department.getLevel());
+            }
+        }
+        List<Department> roots = new ArrayList<>();
+        for (Department department : current.departments().values()) {
+            if (filter.test(department) && department.getLevel() != null && department.getLevel() == minLevel) {
+                roots.add(copyTree(current, department.getId(), filter));
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 部门数据变更后调用：存在事务时提交后失效，无事务时立即失效
+     */
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict();
+            }
+        });
+    }
+
+    private void evict() {
+        discard();
+        try {
+            redisCache.publish(RedisKeys.getDepartmentInvalidateChannel(), "");
+        } catch (Exception e) {
+            log.error("发布部门缓存失效通知失败", e);
+        }
+    }
+
+    private void discard() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * 先读失效计数再查询，加载期间发生的失效会使该快照在下次读取时重建
+     */
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.generation() != generation.get()) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || current.generation() != generation.get()) {
+                    long loadGeneration = generation.get();
+                    current = load(loadGeneration, departmentMapper.selectList(null));
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Snapshot load(long generation, Collection<Department> rows) {
+        Map<Integer, Department> departments = new LinkedHashMap<>(rows.size() * 4 / 3 + 1);
+        Map<Integer, List<Integer>> children = new HashMap<>();
+        for (Department department : rows) {
+            departments.put(department.getId(), department);
+            Integer parentId = department.getParentId() == null ? 0 : department.getParentId();
+            if (parentId.equals(department.getId())) {
+                continue;
+            }
+            children.computeIfAbsent(parentId, key -> new ArrayList<>()).add(department.getId());
+        }
+        return new Snapshot(generation, Collections.unmodifiableMap(departments), Collections.unmodifiableMap(children));
+    }
+
+    /**
+     * 复制子树，快照中的实体不对外暴露，调用方可以自由修改返回结果
+     */
+    private static Department copyTree(Snapshot snapshot, Integer rootId, Predicate<Department> filter) {
+        Department root = copy(snapshot.departments().get(rootId));
+        Deque<Department> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Department parent = stack.pop();
+            for (Integer childId : snapshot.children().getOrDefault(parent.getId(), Collections.emptyList())) {
+                Department child = snapshot.departments().get(childId);
+                if (filter.test(child)) {
+                    Department node = copy(child);
+                    parent.getChildren().add(node);
+                    stack.push(node);
+                }
+            }
+        }
+        return root;
+    }
+
+    private static Department copy(Department source) {
+        Department target = new Department();
+        target.setId(source.getId());
+        target.setName(source.getName());
+        target.setLevel(source.getLevel());
+        target.setParentId(source.getParentId());
+        target.setParentIds(source.getParentIds());
+        target.setCreateTime(source.getCreateTime());
+        target.setUpdateTime(source.getUpdateTime());
+        return target;
+    }
+}
@@ -0,0 +1,23 @@
+package com.crm.common.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 按日分组的统计结果行
+ * 各表的分组查询只填充与自身相关的字段，其余为 null
+ *
+ * @author crm
+ */
+@Data
+public class DailyMetricsDTO {
+    private LocalDate day;
+    private Integer customerCount;
+    private Integer leadCount;
+    private Integer contractCount;
+    private BigDecimal contractAmount;
+    private Integer approvedCount;
+    private Integer rejectedCount;
+}
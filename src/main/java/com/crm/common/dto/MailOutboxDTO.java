@@ -0,0 +1,25 @@
+package com.crm.common.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 邮件发件箱记录（t_mail_outbox）
+ *
+ * @author crm
+ */
+@Data
+public class MailOutboxDTO {
+    private Long id;
+    private String toAddress;
+    private String subject;
+    private String content;
+    /**
+     * 0-待发送，1-已发送，2-发送失败
+     */
+    private Integer status;
+    private Integer attempts;
+    private LocalDateTime nextAttemptTime;
+    private String lastError;
+}
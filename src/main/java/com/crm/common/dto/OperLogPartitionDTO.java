@@ -0,0 +1,18 @@
+package com.crm.common.dto;
+
+import lombok.Data;
+
+/**
+ * 操作日志表分区信息（information_schema.PARTITIONS）
+ *
+ * @author crm
+ */
+@Data
+public class OperLogPartitionDTO {
+    private String name;
+    /**
+     * 分区上界，如 '2025-11-01 00:00:00'，兜底分区为 MAXVALUE
+     */
+    private String lessThan;
+    private Long tableRows;
+}
@@ -0,0 +1,12 @@
+package com.crm.common.lock;
+
+/**
+ * 定时任务租约
+ *
+ * @param job        任务名
+ * @param token      防护令牌，每次获取租约单调递增，可随写操作一起提交以拒绝过期持有者的写入
+ * @param acquiredAt 获取时间（毫秒）
+ * @author crm
+ */
+public record JobLease(String job, long token, long acquiredAt) {
+}
@@ -0,0 +1,164 @@
+package com.crm.common.lock;
+
+import com.crm.common.cache.RedisCache;
+import com.crm.common.cache.RedisKeys;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 Redis 的定时任务租约
+ * 获取：INCR 生成防护令牌后 SET NX PX 写入；续约、释放：Lua 脚本比较令牌后 PEXPIRE / DEL，
+ * 只有当前持有者能续约或释放。同时记录各任务的执行、跳过次数与耗时
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+public class JobLeaseManager {
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    /**
+     * 单个任务的执行统计
+     */
+    private static final class JobStats {
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong skips = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong lastDurationMs = new AtomicLong();
+        private final AtomicLong maxDurationMs = new AtomicLong();
+        private final AtomicLong totalDurationMs = new AtomicLong();
+        private final AtomicLong lastToken = new AtomicLong();
+    }
+
+    private final RedisCache redisCache;
+    private final Map<String, JobStats> stats = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "job-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JobLeaseManager(RedisCache redisCache) {
+        this.redisCache = redisCache;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    /**
+     * 尝试获取租约，已被其他节点持有或 Redis 不可用时返回 null
+     */
+    public JobLease tryAcquire(String job, long leaseMs) {
+        try {
+            Long token = redisCache.increment(RedisKeys.getJobFenceKey(job));
+            if (token == null || !Boolean.TRUE.equals(redisCache.setIfAbsent(RedisKeys.getJobLeaseKey(job), String.valueOf(token), leaseMs))) {
+                return null;
+            }
+            return new JobLease(job, token, System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("获取任务租约失败, 任务: {}", job, e);
+            return null;
+        }
+    }
+
+    /**
+     * 按 1/3 租约时长定期续约，返回的 future 在任务结束后取消
+     */
+    public ScheduledFuture<?> keepAlive(JobLease lease, long leaseMs) {
+        long period = Math.max(1, leaseMs / 3);
+        return renewer.scheduleAtFixedRate(() -> {
+            if (!renew(lease, leaseMs)) {
+                log.warn("任务租约续约失败，可能已被其他节点接管, 任务: {}, 令牌: {}", lease.job(), lease.token());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean renew(JobLease lease, long leaseMs) {
+        try {
+            Long result = redisCache.execute(RENEW_SCRIPT, List.of(RedisKeys.getJobLeaseKey(lease.job())), lease.token(), leaseMs);
+            return result != null && result > 0;
+        } catch (Exception e) {
+            log.error("任务租约续约异常, 任务: {}", lease.job(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 释放租约，持有时间不足 minHoldMs 时保留到 minHoldMs 后自然过期
+     */
+    public void release(JobLease lease, long minHoldMs) {
+        long remaining = minHoldMs - (System.currentTimeMillis() - lease.acquiredAt());
+        try {
+            if (remaining > 0) {
+                redisCache.execute(RENEW_SCRIPT, List.of(RedisKeys.getJobLeaseKey(lease.job())), lease.token(), remaining);
+            } else {
+                redisCache.execute(RELEASE_SCRIPT, List.of(RedisKeys.getJobLeaseKey(lease.job())), lease.token());
+            }
+        } catch (Exception e) {
+            // 释放失败时租约到期后自动失效
+            log.error("释放任务租约失败, 任务: {}", lease.job(), e);
+        }
+    }
+
+    public void recordRun(JobLease lease, long durationMs, boolean failed) {
+        JobStats jobStats = stats(lease.job());
+        jobStats.runs.incrementAndGet();
+        if (failed) {
+            jobStats.failures.incrementAndGet();
+        }
+        jobStats.lastDurationMs.set(durationMs);
+        jobStats.maxDurationMs.accumulateAndGet(durationMs, Math::max);
+        jobStats.totalDurationMs.addAndGet(durationMs);
+        jobStats.lastToken.set(lease.token());
+    }
+
+    public void recordSkip(String job) {
+        stats(job).skips.incrementAndGet();
+    }
+
+    /**
+     * 本节点各任务的执行次数、跳过次数、失败次数与耗时
+     */
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        stats.forEach((job, jobStats) -> {
+            Map<String, Long> item = new LinkedHashMap<>();
+            item.put("runs", jobStats.runs.get());
+            item.put("skips", jobStats.skips.get());
+            item.put("failures", jobStats.failures.get());
+            item.put("lastDurationMs", jobStats.lastDurationMs.get());
+            item.put("maxDurationMs", jobStats.maxDurationMs.get());
+            item.put("totalDurationMs", jobStats.totalDurationMs.get());
+            item.put("lastToken", jobStats.lastToken.get());
+            result.put(job, item);
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    private JobStats stats(String job) {
+        return stats.computeIfAbsent(job, key -> new JobStats());
+    }
+}
@@ -0,0 +1,266 @@
+package com.crm.common.mail;
+
+import com.crm.common.dto.MailOutboxDTO;
+import com.crm.mapper.MailOutboxMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 邮件发件箱
+ * 业务事务内只写入 t_mail_outbox，提交后由虚拟线程批量投递，回滚则不会发出邮件；
+ * 每批邮件通过同一个 SMTP 连接发送，失败按指数退避重试，超过最大次数后标记为发送失败。
+ * 投递前按条件更新领取记录，多节点不会重复发送；节点中途退出时领取租约到期后由其他节点重新投递
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+public class MailOutbox {
+
+    private static final int STATUS_PENDING = 0;
+    private static final int STATUS_FAILED = 2;
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final MailOutboxMapper mailOutboxMapper;
+    private final JavaMailSender mailSender;
+
+    @Value("${spring.mail.username}")
+    private String from;
+
+    /**
+     * 同时投递的批次数，每个批次占用一个 SMTP 连接
+     */
+    @Value("${crm.mail-outbox.workers:2}")
+    private int workers;
+
+    @Value("${crm.mail-outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${crm.mail-outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${crm.mail-outbox.base-delay-ms:30000}")
+    private long baseDelayMs;
+
+    @Value("${crm.mail-outbox.max-delay-ms:3600000}")
+    private long maxDelayMs;
+
+    /**
+     * 领取租约，超过该时间仍未回写结果的邮件会被重新投递
+     */
+    @Value("${crm.mail-outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private volatile boolean running;
+
+    public MailOutbox(MailOutboxMapper mailOutboxMapper, JavaMailSender mailSender) {
+        this.mailOutboxMapper = mailOutboxMapper;
+        this.mailSender = mailSender;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mail-outbox-", 0).factory());
+        permits = new Semaphore(Math.max(1, workers));
+        running = true;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 写入一封待发送邮件
+     * 存在事务时与业务数据一同提交，提交后触发投递；无事务时写入后立即触发投递
+     */
+    public void enqueue(String to, String subject, String content) {
+        MailOutboxDTO row = new MailOutboxDTO();
+        row.setToAddress(to);
+        row.setSubject(subject);
+        row.setContent(content);
+        row.setNextAttemptTime(LocalDateTime.now());
+        mailOutboxMapper.insert(row);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            signal();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                signal();
+            }
+        });
+    }
+
+    /**
+     * 定时补投：待重试的邮件及其他节点遗留的邮件
+     */
+    @Scheduled(fixedDelayString = "${crm.mail-outbox.sweep-interval-ms:30000}")
+    public void sweep() {
+        signal();
+    }
+
+    /**
+     * 标记有待投递的邮件，有空闲名额时启动一个投递线程；
+     * 名额已满时由正在运行的线程在结束前继续处理
+     */
+    private void signal() {
+        pending.set(true);
+        if (running && permits.tryAcquire()) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (running && pending.getAndSet(false)) {
+                int claimed;
+                do {
+                    claimed = deliverBatch();
+                } while (running && claimed >= batchSize);
+            }
+        } catch (Exception e) {
+            log.error("投递发件箱邮件失败", e);
+        } finally {
+            permits.release();
+        }
+        // 释放名额与新的触发之间可能存在竞争，此处补一次检查
+        if (pending.get()) {
+            signal();
+        }
+    }
+
+    /**
+     * 领取一批到期邮件并通过同一连接发送
+     *
+     * @return 领取的条数
+     */
+    private int deliverBatch() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (mailOutboxMapper.claim(token, now, now.plusSeconds(leaseSeconds), batchSize) == 0) {
+            return 0;
+        }
+        List<MailOutboxDTO> rows = mailOutboxMapper.selectClaimed(token);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        SimpleMailMessage[] messages = new SimpleMailMessage[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            messages[i] = toMessage(rows.get(i));
+        }
+        Map<Object, Exception> failures = send(messages);
+
+        List<Long> sentIds = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Exception failure = failures.get(messages[i]);
+            if (failure == null) {
+                sentIds.add(rows.get(i).getId());
+            } else {
+                markFailed(token, rows.get(i), failure);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            mailOutboxMapper.markSent(token, sentIds);
+        }
+        return rows.size();
+    }
+
+    /**
+     * JavaMailSender 一次调用发送的多封邮件共用一个连接；
+     * 返回发送失败的邮件，连接或认证失败时整批视为失败
+     */
+    private Map<Object, Exception> send(SimpleMailMessage[] messages) {
+        try {
+            mailSender.send(messages);
+            return Map.of();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return allFailed(messages, e);
+        } catch (MailException e) {
+            return allFailed(messages, e);
+        }
+    }
+
+    private void markFailed(String token, MailOutboxDTO row, Exception failure) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setLastError(truncate(failure.getMessage()));
+        if (attempts >= maxAttempts) {
+            row.setStatus(STATUS_FAILED);
+            row.setNextAttemptTime(LocalDateTime.now());
+            log.error("邮件发送失败且不再重试, id: {}, 收件人: {}", row.getId(), row.getToAddress(), failure);
+        } else {
+            row.setStatus(STATUS_PENDING);
+            row.setNextAttemptTime(LocalDateTime.now().plus(backoffMillis(attempts), ChronoUnit.MILLIS));
+            log.warn("邮件发送失败, id: {}, 第 {} 次, 下次投递时间: {}, 原因: {}",
+                    row.getId(), attempts, row.getNextAttemptTime(), failure.getMessage());
+        }
+        mailOutboxMapper.markFailed(token, row);
+    }
+
+    /**
+     * 第 n 次失败后的等待时间：baseDelay * 2^(n-1)，不超过 maxDelay
+     */
+    private long backoffMillis(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(maxDelayMs, baseDelayMs << shift);
+    }
+
+    private SimpleMailMessage toMessage(MailOutboxDTO row) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(row.getToAddress());
+        message.setSubject(row.getSubject());
+        message.setText(row.getContent());
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(SimpleMailMessage[] messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (SimpleMailMessage message : messages) {
+            failures.put(message, e);
+        }
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
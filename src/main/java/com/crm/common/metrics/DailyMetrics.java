@@ -0,0 +1,108 @@
+package com.crm.common.metrics;
+
+import com.crm.common.dto.DailyMetricsDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * 按日索引的仪表盘统计数据
+ * 下标 0 对应起始日期，下标 days-1 对应结束日期
+ *
+ * @author crm
+ */
+public class DailyMetrics {
+
+    private final LocalDate start;
+    private final int days;
+
+    private final int[] customers;
+    private final int[] leads;
+    private final int[] contracts;
+    private final int[] approved;
+    private final int[] rejected;
+    private final BigDecimal[] amount;
+
+    public DailyMetrics(LocalDate start, int days) {
+        this.start = start;
+        this.days = days;
+        this.customers = new int[days];
+        this.leads = new int[days];
+        this.contracts = new int[days];
+        this.approved = new int[days];
+        this.rejected = new int[days];
+        this.amount = new BigDecimal[days];
+        Arrays.fill(this.amount, BigDecimal.ZERO);
+    }
+
+    /**
+     * 日期对应的下标，不在统计区间内返回 -1
+     */
+    public int indexOf(LocalDate day) {
+        if (day == null) {
+            return -1;
+        }
+        long index = ChronoUnit.DAYS.between(start, day);
+        return index >= 0 && index < days ? (int) index : -1;
+    }
+
+    /**
+     * 累加一行分组统计结果，空字段忽略
+     */
+    public void accumulate(DailyMetricsDTO row) {
+        int i = indexOf(row.getDay());
+        if (i < 0) {
+            return;
+        }
+        customers[i] += value(row.getCustomerCount());
+        leads[i] += value(row.getLeadCount());
+        contracts[i] += value(row.getContractCount());
+        approved[i] += value(row.getApprovedCount());
+        rejected[i] += value(row.getRejectedCount());
+        if (row.getContractAmount() != null) {
+            amount[i] = amount[i].add(row.getContractAmount());
+        }
+    }
+
+    private static int value(Integer count) {
+        return count == null ? 0 : count;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public LocalDate dateAt(int index) {
+        return start.plusDays(index);
+    }
+
+    public int customers(int index) {
+        return customers[index];
+    }
+
+    public int leads(int index) {
+        return leads[index];
+    }
+
+    public int contracts(int index) {
+        return contracts[index];
+    }
+
+    public int approved(int index) {
+        return approved[index];
+    }
+
+    public int rejected(int index) {
+        return rejected[index];
+    }
+
+    public BigDecimal amount(int index) {
+        return amount[index];
+    }
+}
@@ -0,0 +1,153 @@
+package com.crm.common.metrics;
+
+import com.crm.common.dto.DailyMetricsDTO;
+import com.crm.mapper.DailyMetricsMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日统计汇总（t_daily_metrics）读写
+ * 业务写入提交后增量累加计数，仪表盘按天读取汇总行，读取成本只与天数有关
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class DailyMetricsStore {
+
+    private final DailyMetricsMapper dailyMetricsMapper;
+    private final DashboardAggregator dashboardAggregator;
+
+    /**
+     * 新增客户
+     */
+    public void customerCreated(LocalDateTime createTime) {
+        DailyMetricsDTO row = row(createTime);
+        row.setCustomerCount(1);
+        incrementAfterCommit(row);
+    }
+
+    /**
+     * 删除客户，从客户创建当日扣减
+     */
+    public void customerDeleted(LocalDateTime createTime) {
+        DailyMetricsDTO row = row(createTime);
+        row.setCustomerCount(-1);
+        incrementAfterCommit(row);
+    }
+
+    /**
+     * 新增线索
+     */
+    public void leadCreated(LocalDateTime createTime) {
+        DailyMetricsDTO row = row(createTime);
+        row.setLeadCount(1);
+        incrementAfterCommit(row);
+    }
+
+    /**
+     * 新增合同
+     */
+    public void contractCreated(LocalDateTime createTime, BigDecimal amount) {
+        DailyMetricsDTO row = row(createTime);
+        row.setContractCount(1);
+        row.setContractAmount(amount);
+        incrementAfterCommit(row);
+    }
+
+    /**
+     * 合同金额变更，差额计入合同创建当日
+     */
+    public void contractAmountChanged(LocalDateTime createTime, BigDecimal oldAmount, BigDecimal newAmount) {
+        BigDecimal diff = nullToZero(newAmount).subtract(nullToZero(oldAmount));
+        if (diff.signum() == 0) {
+            return;
+        }
+        DailyMetricsDTO row = row(createTime);
+        row.setContractAmount(diff);
+        incrementAfterCommit(row);
+    }
+
+    /**
+     * 合同审核完成
+     */
+    public void contractApproved(LocalDateTime approvalTime, boolean approved) {
+        DailyMetricsDTO row = row(approvalTime);
+        if (approved) {
+            row.setApprovedCount(1);
+        } else {
+            row.setRejectedCount(1);
+        }
+        incrementAfterCommit(row);
+    }
+
+    /**
+     * 读取 [start, start + days) 区间内的每日统计
+     */
+    public DailyMetrics load(LocalDate start, int days) {
+        DailyMetrics metrics = new DailyMetrics(start, days);
+        for (DailyMetricsDTO row : dailyMetricsMapper.selectRange(start, start.plusDays(days))) {
+            metrics.accumulate(row);
+        }
+        return metrics;
+    }
+
+    /**
+     * 按源表重建某日统计（对账）
+     */
+    public void rebuild(LocalDate day) {
+        DailyMetrics metrics = dashboardAggregator.aggregate(day, 1);
+        DailyMetricsDTO row = new DailyMetricsDTO();
+        row.setDay(day);
+        row.setCustomerCount(metrics.customers(0));
+        row.setLeadCount(metrics.leads(0));
+        row.setContractCount(metrics.contracts(0));
+        row.setContractAmount(metrics.amount(0));
+        row.setApprovedCount(metrics.approved(0));
+        row.setRejectedCount(metrics.rejected(0));
+        dailyMetricsMapper.replace(row);
+    }
+
+    /**
+     * 存在事务时在提交后累加，回滚则不计数；无事务时立即累加
+     */
+    private void incrementAfterCommit(DailyMetricsDTO row) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(row);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(row);
+            }
+        });
+    }
+
+    private void increment(DailyMetricsDTO row) {
+        try {
+            dailyMetricsMapper.increment(row);
+        } catch (Exception e) {
+            // 汇总失败不影响业务写入，由对账任务修正
+            log.error("更新每日统计失败, 日期: {}", row.getDay(), e);
+        }
+    }
+
+    private static DailyMetricsDTO row(LocalDateTime time) {
+        DailyMetricsDTO row = new DailyMetricsDTO();
+        row.setDay(time == null ? LocalDate.now() : time.toLocalDate());
+        return row;
+    }
+
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
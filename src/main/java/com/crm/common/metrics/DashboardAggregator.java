@@ -0,0 +1,49 @@
+package com.crm.common.metrics;
+
+import com.crm.common.dto.DailyMetricsDTO;
+import com.crm.mapper.ContractMapper;
+import com.crm.mapper.CustomerMapper;
+import com.crm.mapper.LeadMapper;
+import com.crm.utils.DateRange;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 仪表盘统计聚合
+ * 每张表只执行一次按日分组的范围查询（create_time >= ? AND create_time < ?），
+ * 一次性得到统计区间内所有日期的客户、线索、合同、审核及金额数据
+ *
+ * @author crm
+ */
+@Component
+@AllArgsConstructor
+public class DashboardAggregator {
+
+    private final CustomerMapper customerMapper;
+    private final LeadMapper leadMapper;
+    private final ContractMapper contractMapper;
+
+    /**
+     * 统计 [start, start + days) 区间内的每日数据
+     *
+     * @param start 起始日期
+     * @param days  天数
+     */
+    public DailyMetrics aggregate(LocalDate start, int days) {
+        DailyMetrics metrics = new DailyMetrics(start, days);
+        DateRange range = DateRange.ofDays(start, days);
+
+        for (DailyMetricsDTO row : customerMapper.countDailyByCreateTime(range)) {
+            metrics.accumulate(row);
+        }
+        for (DailyMetricsDTO row : leadMapper.countDailyByCreateTime(range)) {
+            metrics.accumulate(row);
+        }
+        for (DailyMetricsDTO row : contractMapper.aggregateDaily(range)) {
+            metrics.accumulate(row);
+        }
+        return metrics;
+    }
+}
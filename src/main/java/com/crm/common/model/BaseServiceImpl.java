@@ -14,7 +14,7 @@ public class BaseServiceImpl<M extends BaseMapper<T>, T> extends ServiceImpl<M,
      * @param query 分页参数
      */
     protected Page<T> getPage(Query query) {
-        Page<T> page = new Page<>(query.getPage(), query.getLimit());
+        Page<T> page = CountPage.of(query);
 
         // 排序
         if (StringUtils.isNotBlank(query.getOrder())) {
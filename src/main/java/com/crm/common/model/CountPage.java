@@ -0,0 +1,67 @@
+package com.crm.common.model;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按 Query 的统计方式分页
+ * 统计方式由 CountingPaginationInnerInterceptor 在查询时处理；NONE 时实际多查一条，
+ * 写入记录时截掉多出的一条并记为有下一页
+ *
+ * @author crm
+ */
+@Getter
+public class CountPage<T> extends Page<T> {
+    private final long limit;
+    @Setter
+    private CountStrategy strategy;
+    private boolean hasNext;
+
+    public CountPage(Query query) {
+        super(query.getPage(), query.getLimit());
+        this.limit = query.getLimit();
+        this.strategy = query.getCount();
+    }
+
+    public static <T> CountPage<T> of(Query query) {
+        return new CountPage<>(query);
+    }
+
+    /**
+     * 偏移量按原每页条数计算，不受多查一条的影响
+     */
+    @Override
+    public long offset() {
+        return getCurrent() <= 1 ? 0L : (getCurrent() - 1) * limit;
+    }
+
+    @Override
+    public Page<T> setRecords(List<T> records) {
+        return super.setRecords(trim(records));
+    }
+
+    /**
+     * NONE 时截掉用于判断下一页的多余记录
+     */
+    public <E> List<E> trim(List<E> list) {
+        if (strategy == CountStrategy.NONE && list != null && list.size() > limit) {
+            hasNext = true;
+            return new ArrayList<>(list.subList(0, (int) limit));
+        }
+        return list;
+    }
+
+    /**
+     * 返回给前端的总数；NONE 时为已读条数，有下一页时再加 1
+     */
+    public long resultTotal(int size) {
+        if (strategy == CountStrategy.NONE) {
+            return offset() + size + (hasNext ? 1 : 0);
+        }
+        return getTotal();
+    }
+}
@@ -0,0 +1,25 @@
+package com.crm.common.model;
+
+/**
+ * 分页总数统计方式
+ *
+ * @author crm
+ */
+public enum CountStrategy {
+    /**
+     * 每次执行 COUNT 查询
+     */
+    EXACT,
+    /**
+     * 相同 SQL 与参数的 COUNT 结果缓存一段时间
+     */
+    CACHED,
+    /**
+     * 取 EXPLAIN 的预估行数，不执行 COUNT
+     */
+    ESTIMATED,
+    /**
+     * 不统计，多查一条判断是否有下一页
+     */
+    NONE
+}
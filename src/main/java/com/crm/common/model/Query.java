@@ -22,4 +22,9 @@ public class Query {
     String order;
 
     boolean asc;
+
+    /**
+     * 总数统计方式，为空时使用 crm.page-count.default-strategy
+     */
+    CountStrategy count;
 }
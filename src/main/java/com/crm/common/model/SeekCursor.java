@@ -0,0 +1,37 @@
+package com.crm.common.model;
+
+import com.crm.common.exception.ServerException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 游标分页位置：上一页最后一条记录的 (时间, id)
+ * 对外编码为不透明的 Base64 字符串，下一页按 (time, id) &lt; (?, ?) 继续查询
+ *
+ * @author crm
+ */
+public record SeekCursor(LocalDateTime time, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = time.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，格式不正确时抛出异常
+     */
+    public static SeekCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new SeekCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ServerException("分页游标无效");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.crm.common.region;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 不可变的 IPv4 区间表
+ * 起止地址存放在按起始地址排序的 long[] 中，查询为一次二分查找
+ *
+ * @author crm
+ */
+public final class IpRangeTable {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final String[] regions;
+
+    private IpRangeTable(long[] starts, long[] ends, String[] regions) {
+        this.starts = starts;
+        this.ends = ends;
+        this.regions = regions;
+    }
+
+    public static IpRangeTable empty() {
+        return new IpRangeTable(new long[0], new long[0], new String[0]);
+    }
+
+    /**
+     * 读取区间数据，每行格式：起始IP|结束IP|国家|区域|省份|城市|运营商
+     * 与 ip2region 源数据格式一致，值为 0 的字段忽略，# 开头为注释
+     */
+    public static IpRangeTable load(BufferedReader reader) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        // 相同归属地共用一个字符串实例
+        Map<String, String> pool = new HashMap<>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\|");
+            if (parts.length < 3) {
+                continue;
+            }
+            long start = toLong(parts[0].trim());
+            long end = toLong(parts[1].trim());
+            if (start < 0 || end < start) {
+                continue;
+            }
+            StringBuilder region = new StringBuilder();
+            for (int i = 2; i < parts.length && i < 6; i++) {
+                String part = parts[i].trim();
+                if (!part.isEmpty() && !"0".equals(part) && region.indexOf(part) < 0) {
+                    if (!region.isEmpty()) {
+                        region.append(' ');
+                    }
+                    region.append(part);
+                }
+            }
+            String name = region.toString();
+            ranges.add(new long[]{start, end, names.size()});
+            names.add(pool.computeIfAbsent(name, k -> k));
+        }
+
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        int size = ranges.size();
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        String[] regions = new String[size];
+        for (int i = 0; i < size; i++) {
+            long[] range = ranges.get(i);
+            starts[i] = range[0];
+            ends[i] = range[1];
+            regions[i] = names.get((int) range[2]);
+        }
+        return new IpRangeTable(starts, ends, regions);
+    }
+
+    /**
+     * 查询归属地，未命中返回 null
+     */
+    public String find(long ip) {
+        int i = Arrays.binarySearch(starts, ip);
+        if (i < 0) {
+            // 取起始地址不大于 ip 的最后一个区间
+            i = -i - 2;
+        }
+        if (i < 0 || ip > ends[i]) {
+            return null;
+        }
+        return regions[i];
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * IPv4 点分十进制转 long，格式错误返回 -1
+     */
+    public static long toLong(String ip) {
+        if (ip == null) {
+            return -1;
+        }
+        long result = 0;
+        int segment = 0;
+        int dots = 0;
+        boolean hasDigit = false;
+        for (int i = 0, n = ip.length(); i < n; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                segment = segment * 10 + (c - '0');
+                if (segment > 255) {
+                    return -1;
+                }
+                hasDigit = true;
+            } else if (c == '.' && hasDigit && dots < 3) {
+                result = result << 8 | segment;
+                segment = 0;
+                dots++;
+                hasDigit = false;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || !hasDigit) {
+            return -1;
+        }
+        return result << 8 | segment;
+    }
+}
@@ -0,0 +1,27 @@
+package com.crm.common.region;
+
+/**
+ * IP 归属地解析
+ *
+ * @author crm
+ */
+public interface IpRegionResolver {
+
+    /**
+     * 内网地址
+     */
+    String INTERNAL = "内网IP";
+
+    /**
+     * 未知地址
+     */
+    String UNKNOWN = "未获取到请求地址";
+
+    /**
+     * 解析 IP 归属地
+     *
+     * @param ip IPv4 地址
+     * @return 归属地，如：浙江省 杭州市
+     */
+    String resolve(String ip);
+}
@@ -0,0 +1,119 @@
+package com.crm.common.region;
+
+import com.crm.utils.IpUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地 IP 归属地解析
+ * 启动时加载区间数据文件，查询走内存二分查找和 LRU 缓存，不再发起网络请求；
+ * 数据文件位于文件系统时，修改后自动重新加载
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+public class LocalIpRegionResolver implements IpRegionResolver {
+
+    private final ResourceLoader resourceLoader;
+
+    /**
+     * 区间数据文件，支持 classpath: 与 file: 前缀
+     */
+    @Value("${crm.ip-region.location:classpath:ip/ip-region.txt}")
+    private String location;
+
+    @Value("${crm.ip-region.cache-size:4096}")
+    private int cacheSize;
+
+    private volatile IpRangeTable table = IpRangeTable.empty();
+    private volatile long lastModified;
+    private Map<String, String> cache;
+
+    public LocalIpRegionResolver(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(cacheSize * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        reload();
+    }
+
+    @Override
+    public String resolve(String ip) {
+        if (IpUtils.internalIp(ip)) {
+            return INTERNAL;
+        }
+        String region = cache.get(ip);
+        if (region == null) {
+            region = table.find(IpRangeTable.toLong(ip));
+            if (region == null || region.isEmpty()) {
+                region = UNKNOWN;
+            }
+            cache.put(ip, region);
+        }
+        return region;
+    }
+
+    /**
+     * 数据文件有变化时重新加载
+     */
+    @Scheduled(fixedDelayString = "${crm.ip-region.check-interval-ms:60000}")
+    public void checkReload() {
+        File file = dataFile();
+        if (file != null && file.lastModified() != lastModified) {
+            reload();
+        }
+    }
+
+    /**
+     * 加载数据文件，失败时保留原数据
+     */
+    public synchronized void reload() {
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            log.warn("IP归属地数据文件不存在: {}", location);
+            return;
+        }
+        File file = dataFile();
+        long modified = file != null ? file.lastModified() : 0L;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            table = IpRangeTable.load(reader);
+            lastModified = modified;
+            cache.clear();
+            log.info("IP归属地数据加载完成: {}, 区间数: {}", location, table.size());
+        } catch (IOException e) {
+            log.error("IP归属地数据加载失败: {}", location, e);
+        }
+    }
+
+    private File dataFile() {
+        try {
+            Resource resource = resourceLoader.getResource(location);
+            return resource.isFile() ? resource.getFile() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.crm.common.result;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * @author crm
+ */
+@Data
+@Schema(description = "游标分页数据")
+public class CursorPageResult<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "列表数据")
+    private List<T> list;
+
+    @Schema(description = "下一页游标，为空表示没有更多数据")
+    private String nextCursor;
+
+    @Schema(description = "总记录数，未请求统计时为空")
+    private Long total;
+
+    @Schema(description = "总记录数是否为估算值")
+    private boolean approximate;
+
+    /**
+     * 游标分页
+     * @param list       列表数据
+     * @param nextCursor 下一页游标
+     */
+    public CursorPageResult(List<T> list, String nextCursor) {
+        this.list = list;
+        this.nextCursor = nextCursor;
+    }
+}
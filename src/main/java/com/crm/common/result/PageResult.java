@@ -1,5 +1,8 @@
 package com.crm.common.result;
 
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.crm.common.model.CountPage;
+import com.crm.common.model.CountStrategy;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -20,6 +23,9 @@ public class PageResult<T> implements Serializable {
     @Schema(description = "列表数据")
     private List<T> list;
 
+    @Schema(description = "总记录数来源：EXACT 精确 / CACHED 缓存 / ESTIMATED 估算 / NONE 未统计（为已读条数，有下一页时加 1）")
+    private CountStrategy countStrategy = CountStrategy.EXACT;
+
     /**
      * 分页
      * @param list   列表数据
@@ -29,4 +35,21 @@ public class PageResult<T> implements Serializable {
         this.list = list;
         this.total = (int)total;
     }
+
+    /**
+     * 按分页参数的统计方式生成分页结果
+     * @param page 分页参数
+     * @param list 列表数据
+     */
+    public static <T> PageResult<T> of(IPage<?> page, List<T> list) {
+        if (page instanceof CountPage<?> countPage) {
+            List<T> records = countPage.trim(list);
+            PageResult<T> result = new PageResult<>(records, countPage.resultTotal(records.size()));
+            if (countPage.getStrategy() != null) {
+                result.setCountStrategy(countPage.getStrategy());
+            }
+            return result;
+        }
+        return new PageResult<>(list, page.getTotal());
+    }
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package com.crm.controller;
 
 import com.crm.common.aop.Log;
+import com.crm.common.result.CursorPageResult;
 import com.crm.common.result.PageResult;
 import com.crm.common.result.Result;
 import com.crm.entity.Department;
 import com.crm.entity.OperLog;
 import com.crm.enums.BusinessType;
 import com.crm.query.DepartmentQuery;
+import com.crm.query.OperLogCursorQuery;
 import com.crm.query.OperLogQuery;
 import com.crm.service.DepartmentService;
 import com.crm.service.OperLogService;
@@ -19,6 +21,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 /**
  * <p>
  * 操作日志记录 前端控制器
@@ -40,4 +44,17 @@ public class OperLogController {
     public Result<PageResult<OperLog>> getPage(@RequestBody @Validated OperLogQuery query){
         return Result.ok(operLogService.page(query));
     }
+
+    @PostMapping("/seek")
+    @Operation(summary = "日志游标分页列表")
+    @Log(title="日志列表-游标分页", businessType = BusinessType.SELECT)
+    public Result<CursorPageResult<OperLog>> seek(@RequestBody @Validated OperLogCursorQuery query){
+        return Result.ok(operLogService.seek(query));
+    }
+
+    @PostMapping("/writerStats")
+    @Operation(summary = "日志异步写入统计")
+    public Result<Map<String, Long>> writerStats(){
+        return Result.ok(operLogService.writerStats());
+    }
 }
\ No newline at end of file
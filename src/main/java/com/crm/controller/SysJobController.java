@@ -0,0 +1,33 @@
+package com.crm.controller;
+
+import com.crm.common.lock.JobLeaseManager;
+import com.crm.common.result.Result;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * <p>
+ * 定时任务 前端控制器
+ * </p>
+ *
+ * @author crm
+ */
+@Tag(name = "定时任务")
+@RestController
+@RequestMapping("/sys/job")
+@AllArgsConstructor
+public class SysJobController {
+    private final JobLeaseManager jobLeaseManager;
+
+    @PostMapping("/stats")
+    @Operation(summary = "本节点定时任务执行统计")
+    public Result<Map<String, Map<String, Long>>> stats() {
+        return Result.ok(jobLeaseManager.stats());
+    }
+}
@@ -6,6 +6,7 @@ import com.crm.common.result.PageResult;
 import com.crm.common.result.Result;
 import com.crm.query.ChangePasswordQuery;
 import com.crm.query.SysManagerQuery;
+import com.crm.security.cache.TokenStoreCache;
 import com.crm.security.user.ManagerDetail;
 import com.crm.security.user.SecurityUser;
 import com.crm.service.SysManagerService;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -39,6 +41,8 @@ public class SysManagerController {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final TokenStoreCache tokenStoreCache;
+
 
     @PostMapping("page")
     @Operation(summary = "分页")
@@ -110,4 +114,10 @@ public class SysManagerController {
         sysManagerService.changePassword(query);
         return Result.ok();
     }
+
+    @PostMapping("tokenCacheStats")
+    @Operation(summary = "登录用户本地缓存统计")
+    public Result<Map<String, Long>> tokenCacheStats() {
+        return Result.ok(tokenStoreCache.nearCacheStats());
+    }
 }
@@ -4,6 +4,7 @@ import com.crm.common.result.Result;
 import com.crm.entity.SysMenu;
 import com.crm.enums.MenuTypeEnum;
 import com.crm.query.SysMenuQuery;
+import com.crm.security.cache.MenuTreeCache;
 import com.crm.security.user.ManagerDetail;
 import com.crm.security.user.SecurityUser;
 import com.crm.service.SysMenuService;
@@ -14,8 +15,13 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -38,10 +44,14 @@ public class SysMenuController {
     private final SysMenuService sysMenuService;
 
     @PostMapping("nav")
-    @Operation(summary = "用户菜单")
-    public Result<List<SysMenuVO>> nav() {
+    @Operation(summary = "用户菜单，菜单未变化时返回 304")
+    public ResponseEntity<byte[]> nav(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         ManagerDetail manager = SecurityUser.getManager();
-        return Result.ok(sysMenuService.getManagerMenuList(manager, MenuTypeEnum.BUTTON.name()));
+        MenuTreeCache.MenuTree tree = sysMenuService.getManagerMenuTree(manager, MenuTypeEnum.BUTTON.name());
+        if (tree.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tree.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(tree.etag()).contentType(MediaType.APPLICATION_JSON).body(tree.body());
     }
 
     @PostMapping("button")
@@ -1,6 +1,8 @@
 package com.crm.mapper;
 
+import com.crm.common.dto.DailyMetricsDTO;
 import com.crm.entity.Contract;
+import com.crm.utils.DateRange;
 
 import com.crm.vo.ContractTrendPieVO;
 
@@ -8,7 +10,6 @@ import com.github.yulichang.base.MPJBaseMapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -22,12 +23,15 @@ import java.util.List;
 public interface ContractMapper extends MPJBaseMapper<Contract> {
     // 按合同状态统计（对应 XML 中的 countByStatus 方法）
     List<ContractTrendPieVO> countByStatus(@Param("managerId") Integer managerId);
-    int countByCreateDate(@Param("date") LocalDate date);
-    BigDecimal sumAmountByCreateDate(@Param("date") LocalDate date);
+    int countByCreateDate(@Param("range") DateRange range);
+    BigDecimal sumAmountByCreateDate(@Param("range") DateRange range);
     // 合同趋势
     int countByStatusAndDate(
             @Param("managerId") Integer managerId,
-            @Param("date") String date,
+            @Param("range") DateRange range,
             @Param("status") Integer status
     );
+
+    // 按日统计新增合同数、合同金额（create_time）及审核通过/拒绝数（update_time）
+    List<DailyMetricsDTO> aggregateDaily(@Param("range") DateRange range);
 }
\ No newline at end of file
@@ -1,13 +1,17 @@
 package com.crm.mapper;
 
+import com.crm.common.dto.DailyMetricsDTO;
 import com.crm.entity.Customer;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.crm.query.CustomerQuery;
 import com.crm.query.CustomerTrendQuery;
 import com.crm.vo.CustomerTrendVO;
+import com.crm.utils.DateRange;
+import com.crm.vo.CustomerVO;
 import com.github.yulichang.base.MPJBaseMapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
-import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -23,5 +27,11 @@ List<CustomerTrendVO> getTradeStatistics(@Param("query") CustomerTrendQuery quer
     List<CustomerTrendVO> getTradeStatisticsByDay(@Param("query") CustomerTrendQuery query);
 
     List<CustomerTrendVO> getTradeStatisticsByWeek(@Param("query") CustomerTrendQuery query);
-    int countByCreateDate(@Param("date") LocalDate date);
+    int countByCreateDate(@Param("range") DateRange range);
+
+    // 导出客户，流式游标逐行读取
+    Cursor<CustomerVO> selectExportCursor(@Param("query") CustomerQuery query);
+
+    // 按日统计新增客户数（create_time 范围扫描）
+    List<DailyMetricsDTO> countDailyByCreateTime(@Param("range") DateRange range);
 }
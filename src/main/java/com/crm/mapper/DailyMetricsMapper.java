@@ -0,0 +1,34 @@
+package com.crm.mapper;
+
+import com.crm.common.dto.DailyMetricsDTO;
+import com.crm.vo.CustomerTrendVO;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * <p>
+ * 每日统计汇总表 t_daily_metrics Mapper 接口
+ * </p>
+ *
+ * @author crm
+ */
+public interface DailyMetricsMapper {
+    // 累加某日统计值，记录不存在时插入
+    int increment(@Param("row") DailyMetricsDTO row);
+
+    // 覆盖写入某日统计值（对账重建）
+    int replace(@Param("row") DailyMetricsDTO row);
+
+    // 查询 [start, end) 区间内的每日统计
+    List<DailyMetricsDTO> selectRange(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // 按 DATE_FORMAT 格式汇总新增客户数（日、月）
+    List<CustomerTrendVO> sumCustomerByFormat(@Param("start") String start,
+                                              @Param("end") String end,
+                                              @Param("timeFormat") String timeFormat);
+
+    // 按周汇总新增客户数，周序号算法与 CustomerMapper.getTradeStatisticsByWeek 一致
+    List<CustomerTrendVO> sumCustomerByWeek(@Param("start") String start, @Param("end") String end);
+}
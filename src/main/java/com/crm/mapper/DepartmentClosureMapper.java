@@ -0,0 +1,32 @@
+package com.crm.mapper;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * <p>
+ * 部门闭包表 t_department_closure Mapper 接口
+ * </p>
+ *
+ * @author crm
+ */
+public interface DepartmentClosureMapper {
+    // 新增部门：复制上级部门的祖先关系并加入自身
+    int insertNode(@Param("id") Integer id, @Param("parentId") Integer parentId);
+
+    // 部门本身及所有子孙部门 id
+    List<Integer> selectDescendantIds(@Param("id") Integer id);
+
+    // descendantId 是否为 ancestorId 本身或其子孙
+    boolean isDescendant(@Param("ancestorId") Integer ancestorId, @Param("descendantId") Integer descendantId);
+
+    // 移动前：断开子树与原祖先之间的关系，子树内部关系保留
+    int detachSubtree(@Param("id") Integer id);
+
+    // 移动后：子树每个节点与新上级的所有祖先建立关系
+    int attachSubtree(@Param("id") Integer id, @Param("parentId") Integer parentId);
+
+    // 删除子树涉及的全部关系
+    int deleteSubtree(@Param("id") Integer id);
+}
@@ -2,6 +2,7 @@ package com.crm.mapper;
 
 import com.crm.entity.Department;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
 
 /**
  * <p>
@@ -12,5 +13,12 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  * @since 2025-10-12
  */
 public interface DepartmentMapper extends BaseMapper<Department> {
+    // 逻辑删除部门及其所有子孙部门（按闭包表）
+    int logicDeleteSubtree(@Param("id") Integer id);
 
+    // 移动部门后更新子树的 parent_ids 与层级
+    int moveSubtreePath(@Param("id") Integer id,
+                        @Param("oldParentIds") String oldParentIds,
+                        @Param("newParentIds") String newParentIds,
+                        @Param("levelDelta") int levelDelta);
 }
@@ -1,10 +1,12 @@
 package com.crm.mapper;
 
+import com.crm.common.dto.DailyMetricsDTO;
 import com.crm.entity.Lead;
+import com.crm.utils.DateRange;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 
-import java.time.LocalDate;
+import java.util.List;
 
 /**
  * <p>
@@ -15,5 +17,8 @@ import java.time.LocalDate;
  * @since 2025-10-12
  */
 public interface LeadMapper extends BaseMapper<Lead> {
-    int countByCreateDate(@Param("date") LocalDate date);
+    int countByCreateDate(@Param("range") DateRange range);
+
+    // 按日统计新增线索数（create_time 范围扫描）
+    List<DailyMetricsDTO> countDailyByCreateTime(@Param("range") DateRange range);
 }
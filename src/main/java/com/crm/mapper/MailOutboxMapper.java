@@ -0,0 +1,34 @@
+package com.crm.mapper;
+
+import com.crm.common.dto.MailOutboxDTO;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>
+ * 邮件发件箱表 t_mail_outbox Mapper 接口
+ * </p>
+ *
+ * @author crm
+ */
+public interface MailOutboxMapper {
+    // 写入待发送邮件，回填主键
+    int insert(@Param("row") MailOutboxDTO row);
+
+    // 领取最多 limit 条到期的待发送邮件：写入领取标识并把下次投递时间推到租约到期时间
+    int claim(@Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("limit") int limit);
+
+    // 查询本次领取的邮件
+    List<MailOutboxDTO> selectClaimed(@Param("token") String token);
+
+    // 标记发送成功，仅更新仍由本次领取持有的记录
+    int markSent(@Param("token") String token, @Param("ids") List<Long> ids);
+
+    // 记录发送失败：更新状态、失败次数、下次投递时间并释放领取
+    int markFailed(@Param("token") String token, @Param("row") MailOutboxDTO row);
+}
@@ -1,7 +1,12 @@
 package com.crm.mapper;
 
+import com.crm.common.dto.OperLogPartitionDTO;
 import com.crm.entity.OperLog;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
 
 /**
  * <p>
@@ -12,5 +17,21 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  * @since 2025-10-12
  */
 public interface OperLogMapper extends BaseMapper<OperLog> {
+    // 多行批量插入
+    int insertBatch(@Param("list") List<OperLog> list);
+
+    // 表行数估算值（information_schema 统计信息），用于无筛选条件时的总数
+    Long estimateRows();
+
+    // 查询表分区，未分区时返回空列表
+    List<OperLogPartitionDTO> selectPartitions();
+
+    // 从兜底分区 p_future 拆出新分区
+    int addPartition(@Param("name") String name, @Param("lessThan") String lessThan);
+
+    // 删除分区
+    int dropPartition(@Param("name") String name);
 
+    // 流式读取分区内的全部日志，用于归档
+    void scanPartition(@Param("name") String name, ResultHandler<OperLog> handler);
 }
@@ -3,6 +3,11 @@ package com.crm.mapper;
 import com.crm.entity.Product;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.github.yulichang.base.MPJBaseMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -13,6 +18,16 @@ import com.github.yulichang.base.MPJBaseMapper;
  * @since 2025-10-12
  */
 public interface ProductMapper extends MPJBaseMapper<Product> {
+    // 按商品id批量调整库存与销量（正数扣减库存、负数归还），只更新库存充足的商品，返回影响行数
+    int adjustStock(@Param("deltas") Map<Integer, Integer> deltas);
+
+    // 查询 until 之前到期的定时上架/下架商品（只返回 id 与定时时间）
+    List<Product> selectShelfDue(@Param("until") LocalDateTime until);
+
+    // 定时上架：定时时间未被修改时更新状态并清空定时时间，返回影响行数
+    int shelfOn(@Param("id") Integer id, @Param("dueAt") LocalDateTime dueAt);
 
+    // 定时下架：定时时间未被修改时更新状态并清空定时时间，返回影响行数
+    int shelfOff(@Param("id") Integer id, @Param("dueAt") LocalDateTime dueAt);
 
 }
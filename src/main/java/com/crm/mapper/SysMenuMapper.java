@@ -29,12 +29,26 @@ public interface SysMenuMapper extends BaseMapper<SysMenu> {
      */
     List<SysMenu> getManagerMenuList(@Param("managerId") Integer managerId, @Param("type") String type ,@Param("isEq") boolean isEq);
 
+    /**
+     * 查询角色集合的菜单列表
+     *
+     * @param roleIds 角色ID列表
+     * @param type 菜单类型
+     */
+    List<SysMenu> getRoleMenuList(@Param("roleIds") List<Integer> roleIds, @Param("type") String type, @Param("isEq") boolean isEq);
+
     /**
      * 查询管理员权限列表
      * @param managerId  管理员ID
      */
     List<String> getManagerAuthorityList(@Param("managerId") Integer managerId);
 
+    /**
+     * 查询角色权限列表
+     * @param roleId  角色ID
+     */
+    List<String> getRoleAuthorityList(@Param("roleId") Integer roleId);
+
     /**
      * 查询所有权限列表
      */
@@ -0,0 +1,30 @@
+package com.crm.query;
+
+import io.swagger.annotations.ApiModelProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.hibernate.validator.constraints.Range;
+
+import java.util.List;
+
+@Data
+@Schema(description = "操作日志游标分页查询参数")
+public class OperLogCursorQuery {
+    @ApiModelProperty("上一页返回的游标，查询第一页时为空")
+    private String cursor;
+
+    @NotNull(message = "每页条数不能为空")
+    @Range(min = 1, max = 100, message = "每页条数，取值范围 1-100")
+    private Integer limit;
+
+    @ApiModelProperty("是否返回总记录数，仅第一页生效；无筛选条件时为估算值")
+    private boolean withTotal;
+
+    @ApiModelProperty("操作人账号")
+    private String operName;
+    @ApiModelProperty("业务日志操作时间段")
+    private List<String> operTime;
+    @ApiModelProperty("接口Url(精确）")
+    private String operUrl;
+}
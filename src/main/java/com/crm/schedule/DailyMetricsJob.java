@@ -0,0 +1,43 @@
+package com.crm.schedule;
+
+import com.crm.common.aop.JobLock;
+import com.crm.common.metrics.DailyMetricsStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 每日统计汇总对账任务
+ * 按源表重建最近几天的 t_daily_metrics，修正删除、失败提交等导致的增量偏差；
+ * 多节点部署时每次触发只由获得租约的一个节点执行
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyMetricsJob {
+    private final DailyMetricsStore dailyMetricsStore;
+
+    /**
+     * 对账天数（含今日）
+     */
+    @Value("${crm.metrics.reconcile-days:2}")
+    private int reconcileDays;
+
+    @Scheduled(cron = "${crm.metrics.reconcile-cron:0 5 * * * ?}")
+    @JobLock(leaseMs = 5 * 60_000, minHoldMs = 60_000)
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        for (int i = reconcileDays - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            try {
+                dailyMetricsStore.rebuild(day);
+            } catch (Exception e) {
+                log.error("每日统计对账失败, 日期: {}", day, e);
+            }
+        }
+    }
+}
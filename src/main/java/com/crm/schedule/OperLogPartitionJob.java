@@ -0,0 +1,23 @@
+package com.crm.schedule;
+
+import com.crm.common.aop.JobLock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 操作日志分区维护任务
+ * 提前创建后续月份分区，归档并删除超过保留期的分区；
+ * 分区 DDL 只需一个节点执行，多节点部署时每次触发只由获得租约的节点执行
+ */
+@Component
+@RequiredArgsConstructor
+public class OperLogPartitionJob {
+    private final OperLogPartitionManager operLogPartitionManager;
+
+    @Scheduled(cron = "${crm.oper-log.partition-cron:0 30 2 * * ?}")
+    @JobLock(leaseMs = 30 * 60_000, minHoldMs = 60_000)
+    public void maintain() {
+        operLogPartitionManager.maintain();
+    }
+}
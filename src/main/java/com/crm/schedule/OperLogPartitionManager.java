@@ -0,0 +1,194 @@
+package com.crm.schedule;
+
+import com.alibaba.fastjson2.JSON;
+import com.crm.common.dto.OperLogPartitionDTO;
+import com.crm.entity.OperLog;
+import com.crm.mapper.OperLogMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 操作日志分区管理
+ * sys_oper_log 按 oper_time 月度范围分区（见 db/sys_oper_log_partition.sql）：
+ * 提前从兜底分区拆出后续月份，超过保留期的分区先导出为 gzip 压缩的 NDJSON 文件再整区删除，
+ * 删除分区是元数据操作，不产生逐行删除的开销；表已分区时查询统一带上保留期下界，只扫描保留期内的分区。
+ * 未执行分区脚本时不维护分区，也不限制查询范围，避免隐藏仍在表中的历史日志
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+public class OperLogPartitionManager {
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final Pattern PARTITION_NAME = Pattern.compile("p_history|p\\d{6}");
+    private static final DateTimeFormatter MONTH_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final OperLogMapper operLogMapper;
+
+    /**
+     * 保留月数（含当月），小于等于 0 时不清理
+     */
+    @Value("${crm.oper-log.retention-months:6}")
+    private int retentionMonths;
+
+    /**
+     * 提前创建的月份数
+     */
+    @Value("${crm.oper-log.partition-ahead-months:2}")
+    private int aheadMonths;
+
+    /**
+     * 归档目录，为空时过期分区直接删除
+     */
+    @Value("${crm.oper-log.archive-dir:}")
+    private String archiveDir;
+
+    /**
+     * 表是否已按月分区，首次查询时读取，每次维护时刷新
+     */
+    private volatile Boolean partitioned;
+
+    public OperLogPartitionManager(OperLogMapper operLogMapper) {
+        this.operLogMapper = operLogMapper;
+    }
+
+    /**
+     * 保留期起点，早于该时间的日志不再查询；不清理或表未分区时返回 null
+     */
+    public LocalDateTime retentionStart() {
+        if (retentionMonths <= 0 || !isPartitioned()) {
+            return null;
+        }
+        return cutoff().atStartOfDay();
+    }
+
+    private boolean isPartitioned() {
+        Boolean current = partitioned;
+        if (current == null) {
+            current = isPartitioned(operLogMapper.selectPartitions());
+            partitioned = current;
+        }
+        return current;
+    }
+
+    private static boolean isPartitioned(List<OperLogPartitionDTO> partitions) {
+        return partitions.stream().anyMatch(p -> FUTURE_PARTITION.equals(p.getName()));
+    }
+
+    /**
+     * 创建后续月份分区，归档并删除过期分区
+     */
+    public void maintain() {
+        List<OperLogPartitionDTO> partitions = operLogMapper.selectPartitions();
+        partitioned = isPartitioned(partitions);
+        if (!partitioned) {
+            log.warn("sys_oper_log 未按月分区，跳过分区维护，请先执行 db/sys_oper_log_partition.sql");
+            return;
+        }
+        createAhead(partitions);
+        if (retentionMonths > 0) {
+            dropExpired(partitions);
+        }
+    }
+
+    private void createAhead(List<OperLogPartitionDTO> partitions) {
+        LocalDate last = partitions.stream()
+                .map(OperLogPartitionManager::upperBound)
+                .filter(bound -> bound != null)
+                .max(LocalDate::compareTo)
+                .orElse(YearMonth.now().atDay(1));
+        LocalDate until = YearMonth.now().plusMonths(aheadMonths + 1L).atDay(1);
+        while (last.isBefore(until)) {
+            String name = YearMonth.from(last).format(MONTH_NAME);
+            LocalDate lessThan = last.plusMonths(1);
+            operLogMapper.addPartition(name, lessThan.toString());
+            log.info("创建操作日志分区: {}, 上界: {}", name, lessThan);
+            last = lessThan;
+        }
+    }
+
+    private void dropExpired(List<OperLogPartitionDTO> partitions) {
+        LocalDate cutoff = cutoff();
+        for (OperLogPartitionDTO partition : partitions) {
+            LocalDate bound = upperBound(partition);
+            if (bound == null || bound.isAfter(cutoff) || !PARTITION_NAME.matcher(partition.getName()).matches()) {
+                continue;
+            }
+            try {
+                if (!archiveDir.isBlank()) {
+                    archive(partition.getName());
+                }
+                operLogMapper.dropPartition(partition.getName());
+                log.info("删除过期操作日志分区: {}, 上界: {}", partition.getName(), bound);
+            } catch (Exception e) {
+                // 归档失败时保留分区，下次维护重试
+                log.error("清理操作日志分区失败: {}", partition.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * 流式导出分区为 {archiveDir}/sys_oper_log_{分区}.ndjson.gz，写完后再改名，避免留下不完整的归档
+     */
+    private void archive(String partition) throws IOException {
+        Path dir = Paths.get(archiveDir);
+        Files.createDirectories(dir);
+        Path target = dir.resolve("sys_oper_log_" + partition + ".ndjson.gz");
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        AtomicLong rows = new AtomicLong();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024), StandardCharsets.UTF_8))) {
+            operLogMapper.scanPartition(partition, context -> {
+                OperLog operLog = context.getResultObject();
+                try {
+                    writer.write(JSON.toJSONString(operLog));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+            });
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("归档操作日志分区: {}, 条数: {}, 文件: {}", partition, rows.get(), target);
+    }
+
+    /**
+     * 保留期起点：当月第一天往前推 retentionMonths - 1 个月
+     */
+    private LocalDate cutoff() {
+        return YearMonth.now().minusMonths(retentionMonths - 1L).atDay(1);
+    }
+
+    /**
+     * 解析分区上界，兜底分区返回 null
+     */
+    private static LocalDate upperBound(OperLogPartitionDTO partition) {
+        String lessThan = partition.getLessThan();
+        if (lessThan == null || lessThan.startsWith("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(lessThan.replace("'", "").substring(0, 10));
+    }
+}
@@ -0,0 +1,168 @@
+package com.crm.schedule;
+
+import com.crm.entity.Product;
+import com.crm.mapper.ProductMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 商品定时上下架
+ * 将即将到期的上架/下架时间载入延迟队列（最小堆），到期时按商品 id 执行一次条件更新；
+ * 条件包含原定时时间，定时时间已被修改或其他节点已处理时不会重复更新。
+ * 只预载 horizon 内的事件，更远的事件由定期预载补充；商品保存后立即按库中数据重新排期
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+public class ProductShelfScheduler {
+
+    /**
+     * 上架/下架事件，按到期时间排序
+     */
+    private record ShelfEvent(Integer productId, boolean onShelf, LocalDateTime dueAt, long dueMillis) implements Delayed {
+
+        static ShelfEvent of(Integer productId, boolean onShelf, LocalDateTime dueAt) {
+            return new ShelfEvent(productId, onShelf, dueAt, dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueMillis, ((ShelfEvent) other).dueMillis);
+        }
+    }
+
+    private final ProductMapper productMapper;
+
+    private final DelayQueue<ShelfEvent> queue = new DelayQueue<>();
+    private final Set<ShelfEvent> scheduled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 预载未来多少分钟内的事件
+     */
+    @Value("${crm.product-shelf.horizon-minutes:60}")
+    private long horizonMinutes;
+
+    private Thread worker;
+    private volatile boolean running;
+
+    public ProductShelfScheduler(ProductMapper productMapper) {
+        this.productMapper = productMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::fireLoop, "product-shelf-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * 预载 horizon 内到期（含已过期未处理）的事件，启动时立即执行一次
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${crm.product-shelf.preload-interval-ms:600000}")
+    public void preload() {
+        try {
+            LocalDateTime until = LocalDateTime.now().plusMinutes(horizonMinutes);
+            for (Product product : productMapper.selectShelfDue(until)) {
+                schedule(product, until);
+            }
+        } catch (Exception e) {
+            log.error("预载商品上下架事件失败", e);
+        }
+    }
+
+    /**
+     * 商品保存后调用：存在事务时提交后重新排期，无事务时立即重新排期
+     */
+    public void reschedule(Integer productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            resync(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                resync(productId);
+            }
+        });
+    }
+
+    private void resync(Integer productId) {
+        try {
+            scheduled.removeIf(event -> event.productId().equals(productId));
+            queue.removeIf(event -> event.productId().equals(productId));
+            // 以库中保存后的时间为准，与条件更新中的比较值保持一致
+            Product product = productMapper.selectById(productId);
+            if (product != null) {
+                schedule(product, LocalDateTime.now().plusMinutes(horizonMinutes));
+            }
+        } catch (Exception e) {
+            log.error("商品上下架重新排期失败, 商品id: {}", productId, e);
+        }
+    }
+
+    private void schedule(Product product, LocalDateTime until) {
+        if (product.getOffShelfTime() != null && product.getOffShelfTime().isBefore(until)) {
+            offer(ShelfEvent.of(product.getId(), false, product.getOffShelfTime()));
+        }
+        if (product.getOnShelfTime() != null && product.getOnShelfTime().isBefore(until)) {
+            offer(ShelfEvent.of(product.getId(), true, product.getOnShelfTime()));
+        }
+    }
+
+    private void offer(ShelfEvent event) {
+        if (scheduled.add(event)) {
+            queue.offer(event);
+        }
+    }
+
+    private void fireLoop() {
+        while (running) {
+            ShelfEvent event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            scheduled.remove(event);
+            try {
+                int rows = event.onShelf()
+                        ? productMapper.shelfOn(event.productId(), event.dueAt())
+                        : productMapper.shelfOff(event.productId(), event.dueAt());
+                if (rows > 0) {
+                    log.info("商品定时{}完成, 商品id: {}", event.onShelf() ? "上架" : "下架", event.productId());
+                }
+            } catch (Exception e) {
+                // 失败的事件由下一次预载重新载入
+                log.error("商品定时{}失败, 商品id: {}", event.onShelf() ? "上架" : "下架", event.productId(), e);
+            }
+        }
+    }
+}
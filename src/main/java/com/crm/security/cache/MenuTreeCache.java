@@ -0,0 +1,70 @@
+package com.crm.security.cache;
+
+import com.crm.common.exception.ServerException;
+import com.crm.common.result.Result;
+import com.crm.vo.SysMenuVO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 菜单树缓存
+ * 按（角色集合, 菜单类型）缓存已构建并序列化的菜单树响应体，附带内容摘要作为 ETag；
+ * 条目记录构建时的权限版本号，版本变化后下次读取时重建
+ *
+ * @author crm
+ */
+@Component
+public class MenuTreeCache {
+
+    /**
+     * 序列化后的菜单树，body 为完整的 Result 响应体
+     */
+    public record MenuTree(String etag, byte[] body) {
+    }
+
+    private record Entry(long version, MenuTree tree) {
+    }
+
+    private final PermissionCache permissionCache;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Entry> trees = new ConcurrentHashMap<>();
+
+    public MenuTreeCache(PermissionCache permissionCache, ObjectMapper objectMapper) {
+        this.permissionCache = permissionCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 读取菜单树，未命中或权限版本已变化时调用 loader 重新构建
+     *
+     * @param key    角色集合与菜单类型组成的键
+     * @param loader 查询并构建菜单树
+     */
+    public MenuTree get(String key, Supplier<List<SysMenuVO>> loader) {
+        long version = permissionCache.version();
+        Entry entry = trees.get(key);
+        if (entry != null && entry.version() == version) {
+            return entry.tree();
+        }
+        // 先记下版本号再构建，构建期间发生变更时条目会在下次读取时被重建
+        MenuTree tree = serialize(loader.get());
+        trees.put(key, new Entry(version, tree));
+        return tree;
+    }
+
+    private MenuTree serialize(List<SysMenuVO> menuList) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(Result.ok(menuList));
+            return new MenuTree("\"" + DigestUtils.md5DigestAsHex(body) + "\"", body);
+        } catch (JsonProcessingException e) {
+            throw new ServerException("菜单序列化失败", e);
+        }
+    }
+}
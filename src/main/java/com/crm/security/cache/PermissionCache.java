@@ -0,0 +1,149 @@
+package com.crm.security.cache;
+
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.crm.common.cache.RedisCache;
+import com.crm.common.cache.RedisKeys;
+import com.crm.entity.SysManagerRole;
+import com.crm.mapper.SysManagerRoleMapper;
+import com.crm.mapper.SysMenuMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 角色权限缓存
+ * 每个角色的按钮权限预先拆分为只读集合，管理员到角色的绑定同样缓存，预热后登录不再查询数据库。
+ * 权限版本号保存在 Redis 中，菜单、角色菜单、管理员角色变更提交后递增并通知各节点清空本地缓存
+ *
+ * @author crm
+ */
+@Slf4j
+@Component
+public class PermissionCache {
+
+    private final SysMenuMapper sysMenuMapper;
+    private final SysManagerRoleMapper sysManagerRoleMapper;
+    private final RedisCache redisCache;
+
+    private final Map<Integer, Set<String>> roleAuthorities = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Integer>> managerRoles = new ConcurrentHashMap<>();
+
+    private volatile long version;
+
+    public PermissionCache(SysMenuMapper sysMenuMapper, SysManagerRoleMapper sysManagerRoleMapper, RedisCache redisCache) {
+        this.sysMenuMapper = sysMenuMapper;
+        this.sysManagerRoleMapper = sysManagerRoleMapper;
+        this.redisCache = redisCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        Object current = redisCache.get(RedisKeys.getPermissionVersionKey());
+        version = current == null ? 0L : Long.parseLong(String.valueOf(current));
+        redisCache.subscribe(RedisKeys.getPermissionInvalidateChannel(),
+                message -> refresh(message == null ? version + 1 : Long.parseLong(String.valueOf(message))));
+    }
+
+    /**
+     * 当前权限版本号，菜单、角色授权变化后递增
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 管理员拥有的按钮权限，单角色时直接返回角色的只读集合
+     */
+    public Set<String> getManagerAuthority(Integer managerId) {
+        List<Integer> roleIds = managerRoles.computeIfAbsent(managerId, this::loadManagerRoles);
+        if (roleIds.size() == 1) {
+            return getRoleAuthority(roleIds.get(0));
+        }
+        Set<String> authoritySet = new HashSet<>();
+        for (Integer roleId : roleIds) {
+            authoritySet.addAll(getRoleAuthority(roleId));
+        }
+        return Set.copyOf(authoritySet);
+    }
+
+    /**
+     * 角色拥有的按钮权限
+     */
+    public Set<String> getRoleAuthority(Integer roleId) {
+        return roleAuthorities.computeIfAbsent(roleId, this::loadRoleAuthority);
+    }
+
+    /**
+     * 管理员角色绑定
+     */
+    public List<Integer> getManagerRoles(Integer managerId) {
+        return managerRoles.computeIfAbsent(managerId, this::loadManagerRoles);
+    }
+
+    /**
+     * 权限相关数据变更后调用：存在事务时提交后递增版本号，无事务时立即递增
+     */
+    public void bumpVersion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump();
+            }
+        });
+    }
+
+    private void bump() {
+        try {
+            Long next = redisCache.increment(RedisKeys.getPermissionVersionKey());
+            refresh(next == null ? version + 1 : next);
+            redisCache.publish(RedisKeys.getPermissionInvalidateChannel(), version);
+        } catch (Exception e) {
+            // Redis 不可用时至少保证本节点不再使用旧数据
+            refresh(version + 1);
+            log.error("发布权限版本变更失败", e);
+        }
+    }
+
+    private synchronized void refresh(long next) {
+        if (next <= version) {
+            return;
+        }
+        version = next;
+        roleAuthorities.clear();
+        managerRoles.clear();
+    }
+
+    private Set<String> loadRoleAuthority(Integer roleId) {
+        Set<String> permsSet = new HashSet<>();
+        for (String authority : sysMenuMapper.getRoleAuthorityList(roleId)) {
+            if (StrUtil.isBlank(authority)) {
+                continue;
+            }
+            for (String perm : authority.trim().split(",")) {
+                // 同一权限字符串在各角色间共享同一实例
+                permsSet.add(perm.intern());
+            }
+        }
+        return Set.copyOf(permsSet);
+    }
+
+    private List<Integer> loadManagerRoles(Integer managerId) {
+        return sysManagerRoleMapper.selectList(new LambdaQueryWrapper<SysManagerRole>()
+                        .select(SysManagerRole::getRoleId)
+                        .eq(SysManagerRole::getManagerId, managerId))
+                .stream().map(SysManagerRole::getRoleId).distinct().toList();
+    }
+}
@@ -0,0 +1,119 @@
+package com.crm.security.cache;
+
+import com.crm.security.user.ManagerDetail;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 登录用户本地缓存
+ * 以 accessToken 的 Redis Key 为键，缓存已反序列化的 ManagerDetail；
+ * 条目在 TTL 到期或收到失效通知后移除，容量满时淘汰已过期及任意旧条目；
+ * 写入前后比较失效计数，读取 Redis 期间发生过失效时不缓存读到的旧数据
+ *
+ * @author crm
+ */
+@Component
+public class TokenNearCache {
+
+    private record Entry(ManagerDetail user, long expireAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 失效计数，每次失效加 1
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${crm.token-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${crm.token-cache.max-size:10000}")
+    private int maxSize;
+
+    /**
+     * 查询本地缓存，未命中或已过期返回 null
+     */
+    public ManagerDetail get(String accessTokenKey) {
+        Entry entry = entries.get(accessTokenKey);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expireAt() < System.currentTimeMillis()) {
+            entries.remove(accessTokenKey, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user();
+    }
+
+    /**
+     * 读取 Redis 前获取失效计数，作为 put 的 stamp 参数
+     */
+    public long stamp() {
+        return generation.get();
+    }
+
+    /**
+     * 写入本地缓存；stamp 之后发生过失效时不写入，写入后发生失效时撤回
+     */
+    public void put(String accessTokenKey, ManagerDetail user, long stamp) {
+        if (user == null || generation.get() != stamp) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        Entry entry = new Entry(user, System.currentTimeMillis() + ttlSeconds * 1000);
+        entries.put(accessTokenKey, entry);
+        if (generation.get() != stamp) {
+            entries.remove(accessTokenKey, entry);
+        }
+    }
+
+    public void invalidate(String accessTokenKey) {
+        if (accessTokenKey != null) {
+            generation.incrementAndGet();
+            entries.remove(accessTokenKey);
+        }
+    }
+
+    /**
+     * 命中、未命中次数及当前条目数
+     */
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("size", (long) entries.size());
+        return stats;
+    }
+
+    /**
+     * 先清理过期条目，仍超过容量时移除最多 1/10 的条目
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expireAt() < now);
+        if (entries.size() < maxSize) {
+            return;
+        }
+        int overflow = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (overflow-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
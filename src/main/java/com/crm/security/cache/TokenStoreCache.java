@@ -4,11 +4,14 @@ import com.alibaba.fastjson2.JSON;
 import com.crm.common.cache.RedisCache;
 import com.crm.common.cache.RedisKeys;
 import com.crm.security.user.ManagerDetail;
+import jakarta.annotation.PostConstruct;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author crm
@@ -17,40 +20,92 @@ import java.util.List;
 @AllArgsConstructor
 public class TokenStoreCache {
     private final RedisCache redisCache;
+    private final TokenNearCache tokenNearCache;
 
+    /**
+     * 订阅失效通知，任一节点删除或替换登录信息时清除本地缓存
+     */
+    @PostConstruct
+    public void subscribeInvalidation() {
+        redisCache.subscribe(RedisKeys.getTokenInvalidateChannel(),
+                message -> tokenNearCache.invalidate(message == null ? null : String.valueOf(message)));
+    }
+
+    /**
+     * 保存登录信息：SET EX GET 写入管理员与 accessToken 的映射并取回旧映射，
+     * 再在一次管道往返中删除旧登录信息、写入新登录信息并发布失效通知，Redis 写入完成后再清除本地缓存
+     */
     public void saveUser(String accessToken, ManagerDetail user) {
         String accessTokenKey = RedisKeys.getAccessTokenKey(accessToken);
         String managerIdKey = RedisKeys.getManagerIdKey(user.getId());
-        if (redisCache.get(managerIdKey) != null) {
-            redisCache.delete(String.valueOf(redisCache.get(managerIdKey)));
+        Object oldAccessTokenKey = redisCache.getAndSet(managerIdKey, accessTokenKey, RedisCache.DEFAULT_EXPIRE);
+        List<String> invalidated = new ArrayList<>(2);
+        if (oldAccessTokenKey != null && !accessTokenKey.equals(String.valueOf(oldAccessTokenKey))) {
+            invalidated.add(String.valueOf(oldAccessTokenKey));
         }
-        redisCache.set(managerIdKey, accessTokenKey);
-        redisCache.set(accessTokenKey, user);
+        invalidated.add(accessTokenKey);
+        redisCache.pipeline(operations -> {
+            if (invalidated.size() > 1) {
+                operations.delete(invalidated.get(0));
+            }
+            operations.opsForValue().set(accessTokenKey, user, RedisCache.DEFAULT_EXPIRE, TimeUnit.SECONDS);
+            invalidated.forEach(key -> operations.convertAndSend(RedisKeys.getTokenInvalidateChannel(), key));
+        });
+        invalidated.forEach(tokenNearCache::invalidate);
     }
 
     public ManagerDetail getUser(String accessToken) {
         String key = RedisKeys.getAccessTokenKey(accessToken);
-        return JSON.to(ManagerDetail.class, redisCache.get(key));
+        ManagerDetail user = tokenNearCache.get(key);
+        if (user == null) {
+            // 先取失效计数再读 Redis，读取期间被删除或替换时不写入本地缓存
+            long stamp = tokenNearCache.stamp();
+            user = JSON.to(ManagerDetail.class, redisCache.get(key));
+            tokenNearCache.put(key, user, stamp);
+        }
+        return user;
     }
 
     public void deleteUser(String accessToken) {
-        String key = RedisKeys.getAccessTokenKey(accessToken);
-        redisCache.delete(key);
+        deleteAndInvalidate(List.of(RedisKeys.getAccessTokenKey(accessToken)));
     }
 
     public void deleteUserById(Integer id) {
-        String managerIdKey = RedisKeys.getManagerIdKey(id);
-        String key = String.valueOf(redisCache.get(managerIdKey));
-        redisCache.delete(key);
+        deleteUserByIds(List.of(id));
     }
 
+    /**
+     * 一次 MGET 取回所有管理员的 accessToken Key，再在一次管道往返中删除并发布失效通知
+     */
     public void deleteUserByIds(List<Integer> ids) {
-        List<String> keys = new ArrayList<>();
-        for (Integer id : ids) {
-            String managerIdKey = RedisKeys.getManagerIdKey(id);
-            String key = String.valueOf(redisCache.get(managerIdKey));
-            keys.add(key);
+        List<String> managerIdKeys = ids.stream().map(RedisKeys::getManagerIdKey).toList();
+        List<String> keys = new ArrayList<>(ids.size());
+        for (Object key : redisCache.multiGet(managerIdKeys)) {
+            if (key != null) {
+                keys.add(String.valueOf(key));
+            }
+        }
+        deleteAndInvalidate(keys);
+    }
+
+    /**
+     * 本地缓存命中统计
+     */
+    public Map<String, Long> nearCacheStats() {
+        return tokenNearCache.stats();
+    }
+
+    /**
+     * 删除登录信息并通知其他节点，Redis 删除完成后再清除本节点缓存
+     */
+    private void deleteAndInvalidate(List<String> accessTokenKeys) {
+        if (accessTokenKeys.isEmpty()) {
+            return;
         }
-        redisCache.delete(keys);
+        redisCache.pipeline(operations -> {
+            operations.delete(accessTokenKeys);
+            accessTokenKeys.forEach(key -> operations.convertAndSend(RedisKeys.getTokenInvalidateChannel(), key));
+        });
+        accessTokenKeys.forEach(tokenNearCache::invalidate);
     }
 }
@@ -8,9 +8,11 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.jakarta.JakartaServletFileUpload;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -19,27 +21,36 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Slf4j
 public class AuthenticationTokenFilter extends OncePerRequestFilter {
     private final TokenStoreCache tokenStoreCache;
 
+    /**
+     * 请求日志模式：OFF / HEADERS / BODY
+     */
+    @Value("${crm.request-log.mode:HEADERS}")
+    private RequestCaptureMode captureMode;
+
+    /**
+     * BODY 模式下的采样率，取值 0-1
+     */
+    @Value("${crm.request-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    /**
+     * BODY 模式下记录的请求体最大字节数
+     */
+    @Value("${crm.request-log.max-body-bytes:1024}")
+    private int maxBodyBytes;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
-
-        MyRequestWrapper myRequestWrapper = null;
-        // 获取请求body
-        try {
-            myRequestWrapper = new MyRequestWrapper(request);
-        } catch (IOException e) {
-            log.error("get request body exception", e);
-            throw new ServerException("参数异常");
-        }
-        logger.info(getIp(myRequestWrapper) + myRequestWrapper.getRequestURI() + readAsChars(myRequestWrapper));
+        HttpServletRequest myRequestWrapper = capture(request);
         String accessToken = TokenUtils.getAccessToken(myRequestWrapper);
         // accessToken为空，表示未登录
         if (StringUtils.isBlank(accessToken)) {
@@ -65,40 +76,31 @@ public class AuthenticationTokenFilter extends OncePerRequestFilter {
         chain.doFilter(myRequestWrapper, response);
     }
 
-    public static String readAsChars(HttpServletRequest request)
-    {
-
-        BufferedReader br = null;
-        StringBuilder sb = new StringBuilder("");
-        try
-        {
-            br = request.getReader();
-            String str;
-            while ((str = br.readLine()) != null)
-            {
-                sb.append(str);
-            }
-            br.close();
+    /**
+     * 按记录模式输出请求日志，只有命中采样的非文件上传请求才缓存请求体
+     */
+    private HttpServletRequest capture(HttpServletRequest request) {
+        if (captureMode == RequestCaptureMode.OFF || !log.isInfoEnabled()) {
+            return request;
         }
-        catch (IOException e)
-        {
-            e.printStackTrace();
+        if (captureMode == RequestCaptureMode.HEADERS
+                || JakartaServletFileUpload.isMultipartContent(request)
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            log.info("{} {} {}", getIp(request), request.getMethod(), request.getRequestURI());
+            return request;
         }
-        finally
-        {
-            if (null != br)
-            {
-                try
-                {
-                    br.close();
-                }
-                catch (IOException e)
-                {
-                    e.printStackTrace();
-                }
-            }
+
+        MyRequestWrapper myRequestWrapper;
+        // 获取请求body
+        try {
+            myRequestWrapper = new MyRequestWrapper(request);
+        } catch (IOException e) {
+            log.error("get request body exception", e);
+            throw new ServerException("参数异常");
         }
-        return sb.toString();
+        log.info("{} {} {} {}", getIp(request), request.getMethod(), request.getRequestURI(),
+                myRequestWrapper.getBody(maxBodyBytes));
+        return myRequestWrapper;
     }
 
     public static String getIp(HttpServletRequest request) {
@@ -6,52 +6,57 @@ import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import org.apache.commons.fileupload2.jakarta.JakartaServletFileUpload;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
+/**
+ * 缓存请求体的请求包装类
+ * 请求体一次读入字节数组，后续读取直接重放，不做逐行解码
+ */
 public class MyRequestWrapper extends HttpServletRequestWrapper {
 
-    private byte[] body;
+    private final byte[] body;
 
     public MyRequestWrapper(HttpServletRequest request) throws IOException {
         super(request);
-        if (JakartaServletFileUpload.isMultipartContent(request)) {
-            return;
-        }
-        StringBuilder sb = new StringBuilder();
-        String line;
-        BufferedReader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
-        while ((line = reader.readLine()) != null) {
-            sb.append(line);
-        }
-        String body = sb.toString();
-        this.body = body.getBytes(StandardCharsets.UTF_8);
+        this.body = request.getInputStream().readAllBytes();
+    }
+
+    public byte[] getBodyBytes() {
+        return body;
     }
 
     public String getBody() {
-        return new String(this.body, StandardCharsets.UTF_8);
+        return new String(body, charset());
+    }
+
+    /**
+     * 请求体前 maxBytes 个字节，超出部分截断
+     */
+    public String getBody(int maxBytes) {
+        if (body.length <= maxBytes) {
+            return getBody();
+        }
+        return new String(body, 0, maxBytes, charset()) + "...(" + body.length + " bytes)";
     }
 
     @Override
     public ServletInputStream getInputStream() {
-        if (body == null) {
-            body = "{}".getBytes();
-        }
         final ByteArrayInputStream bais = new ByteArrayInputStream(body);
         return new ServletInputStream() {
             @Override
             public boolean isFinished() {
-                return false;
+                return bais.available() == 0;
             }
 
             @Override
             public boolean isReady() {
-                return false;
+                return true;
             }
 
             @Override
@@ -62,11 +67,21 @@ public class MyRequestWrapper extends HttpServletRequestWrapper {
             public int read() {
                 return bais.read();
             }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return bais.read(b, off, len);
+            }
         };
     }
 
     @Override
     public BufferedReader getReader() {
-        return new BufferedReader(new InputStreamReader(this.getInputStream()));
+        return new BufferedReader(new InputStreamReader(this.getInputStream(), charset()));
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
     }
-}
\ No newline at end of file
+}
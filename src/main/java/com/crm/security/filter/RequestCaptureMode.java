@@ -0,0 +1,21 @@
+package com.crm.security.filter;
+
+/**
+ * 请求日志记录模式
+ *
+ * @author crm
+ */
+public enum RequestCaptureMode {
+    /**
+     * 不记录
+     */
+    OFF,
+    /**
+     * 只记录 IP、请求方式和 URI，不读取请求体
+     */
+    HEADERS,
+    /**
+     * 按采样率记录截断后的请求体
+     */
+    BODY
+}
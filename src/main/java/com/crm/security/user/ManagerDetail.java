@@ -1,5 +1,6 @@
 package com.crm.security.user;
 
+import com.alibaba.fastjson2.annotation.JSONField;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
@@ -44,6 +45,7 @@ public class ManagerDetail implements UserDetails {
 
     @Override
     @JsonIgnore
+    @JSONField(serialize = false, deserialize = false)
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authoritySet.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toSet());
     }
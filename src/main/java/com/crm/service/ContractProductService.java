@@ -2,6 +2,9 @@ package com.crm.service;
 
 import com.crm.entity.ContractProduct;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.crm.vo.ProductVO;
+
+import java.util.List;
 
 /**
  * <p>
@@ -13,4 +16,11 @@ import com.baomidou.mybatisplus.extension.service.IService;
  */
 public interface ContractProductService extends IService<ContractProduct> {
 
+    /**
+     * 同步合同商品明细：按商品id比对新旧明细，批量写入新增、修改、删除并调整库存
+     *
+     * @param contractId     合同id
+     * @param newProductList 新的商品明细，为 null 时不处理
+     */
+    void syncContractProducts(Integer contractId, List<ProductVO> newProductList);
 }
@@ -1,11 +0,0 @@
-package com.crm.service;
-
-/**
- * @author alani
- */
-public interface EmailService {
-    /**
-     * 发送简单邮件
-     */
-    void sendSimpleMail(String to, String subject, String content);
-}
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.crm.service;
 
+import com.crm.common.result.CursorPageResult;
 import com.crm.common.result.PageResult;
 import com.crm.entity.OperLog;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.crm.query.OperLogCursorQuery;
 import com.crm.query.OperLogQuery;
 
+import java.util.Map;
+
 /**
  * <p>
  * 操作日志记录 服务类
@@ -15,6 +19,10 @@ import com.crm.query.OperLogQuery;
  */
 public interface OperLogService extends IService<OperLog> {
     void recordOperLog(OperLog operLog);
+    // 异步写入统计：入队、丢弃、已写入条数及当前积压
+    Map<String, Long> writerStats();
     // 新增分页查询方法
     PageResult<OperLog> page(OperLogQuery query);
+    // 游标分页查询，按 (操作时间, id) 倒序定位下一页，不统计总数时任意页成本相同
+    CursorPageResult<OperLog> seek(OperLogCursorQuery query);
 }
\ No newline at end of file
@@ -16,5 +16,4 @@ import com.crm.query.ProductQuery;
 public interface ProductService extends IService<Product> {
 PageResult<Product> getPage(ProductQuery query);
 void saveOrEdit(Product product);
-void batchUpdateProductState();
 }
@@ -3,6 +3,7 @@ package com.crm.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.crm.entity.SysMenu;
 import com.crm.query.SysMenuQuery;
+import com.crm.security.cache.MenuTreeCache;
 import com.crm.security.user.ManagerDetail;
 import com.crm.vo.SysMenuVO;
 
@@ -23,6 +24,13 @@ public interface SysMenuService extends IService<SysMenu> {
      */
     List<SysMenuVO> getManagerMenuList(ManagerDetail manager, String type);
 
+    /**
+     * 用户菜单树，按角色缓存序列化结果及 ETag
+     *
+     * @param type 菜单类型
+     */
+    MenuTreeCache.MenuTree getManagerMenuTree(ManagerDetail manager, String type);
+
     Set<String> getManagerAuthority(ManagerDetail manager);
 
     /**
@@ -1,10 +1,26 @@
 package com.crm.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.crm.common.exception.ServerException;
 import com.crm.entity.ContractProduct;
+import com.crm.entity.Product;
 import com.crm.mapper.ContractProductMapper;
+import com.crm.mapper.ProductMapper;
 import com.crm.service.ContractProductService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.crm.vo.ProductVO;
+import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * <p>
@@ -15,6 +31,101 @@ import org.springframework.stereotype.Service;
  * @since 2025-11-02
  */
 @Service
+@AllArgsConstructor
 public class ContractProductServiceImpl extends ServiceImpl<ContractProductMapper, ContractProduct> implements ContractProductService {
+    private final ProductMapper productMapper;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void syncContractProducts(Integer contractId, List<ProductVO> newProductList) {
+        if (newProductList == null) return;
+
+        // 1. 新旧明细按商品id建立索引
+        Map<Integer, ContractProduct> oldMap = new HashMap<>();
+        for (ContractProduct cp : baseMapper.selectList(
+                new LambdaQueryWrapper<ContractProduct>().eq(ContractProduct::getCId, contractId))) {
+            oldMap.put(cp.getPId(), cp);
+        }
+        Map<Integer, ProductVO> newMap = new LinkedHashMap<>();
+        for (ProductVO p : newProductList) {
+            newMap.put(p.getPId(), p);
+        }
+
+        // 2. 一次查询所有涉及的商品
+        Set<Integer> productIds = new HashSet<>(oldMap.keySet());
+        productIds.addAll(newMap.keySet());
+        Map<Integer, Product> productMap = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Product product : productMapper.selectBatchIds(productIds)) {
+                productMap.put(product.getId(), product);
+            }
+        }
+
+        // 3. 计算新增、修改、删除明细及每个商品的库存变化量（正数为扣减）
+        List<ContractProduct> added = new ArrayList<>();
+        List<ContractProduct> changed = new ArrayList<>();
+        List<Integer> removedIds = new ArrayList<>();
+        Map<Integer, Integer> stockDeltas = new LinkedHashMap<>();
+
+        for (ProductVO p : newMap.values()) {
+            ContractProduct old = oldMap.get(p.getPId());
+            if (old != null && old.getCount().equals(p.getCount())) {
+                continue;
+            }
+            Product product = productMap.get(p.getPId());
+            if (product == null) {
+                throw new ServerException("商品不存在");
+            }
+            if (old == null) {
+                added.add(builderContractProduct(contractId, product, p.getCount()));
+                stockDeltas.merge(product.getId(), p.getCount(), Integer::sum);
+            } else {
+                stockDeltas.merge(product.getId(), p.getCount() - old.getCount(), Integer::sum);
+                old.setCount(p.getCount());
+                old.setPrice(product.getPrice());
+                old.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(p.getCount())));
+                changed.add(old);
+            }
+        }
+        for (ContractProduct old : oldMap.values()) {
+            if (newMap.containsKey(old.getPId())) {
+                continue;
+            }
+            if (productMap.containsKey(old.getPId())) {
+                stockDeltas.merge(old.getPId(), -old.getCount(), Integer::sum);
+            }
+            removedIds.add(old.getId());
+        }
+        stockDeltas.values().removeIf(delta -> delta == 0);
+
+        // 4. 一条条件更新调整所有商品库存，任一商品库存不足则整体回滚
+        if (!stockDeltas.isEmpty() && productMapper.adjustStock(stockDeltas) != stockDeltas.size()) {
+            throw new ServerException("商品库存不足");
+        }
+
+        // 5. 批量写入明细
+        if (!added.isEmpty()) {
+            saveBatch(added);
+        }
+        if (!changed.isEmpty()) {
+            updateBatchById(changed);
+        }
+        if (!removedIds.isEmpty()) {
+            baseMapper.deleteBatchIds(removedIds);
+        }
+    }
 
+    /**
+     * 创建合同商品关联实体
+     */
+    private ContractProduct builderContractProduct(Integer contractId, Product product, int count) {
+        ContractProduct contractProduct = new ContractProduct();
+        contractProduct.setCId(contractId);
+        contractProduct.setPId(product.getId());
+        contractProduct.setPName(product.getName());
+        contractProduct.setPrice(product.getPrice());
+        contractProduct.setCount(count);
+        contractProduct.setTotalPrice(product.getPrice().multiply(new BigDecimal(count)));
+        return contractProduct;
+    }
 }
@@ -4,7 +4,10 @@ import com.alibaba.excel.util.StringUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.crm.common.model.CountPage;
 import com.crm.common.exception.ServerException;
+import com.crm.common.mail.MailOutbox;
+import com.crm.common.metrics.DailyMetricsStore;
 import com.crm.common.result.PageResult;
 import com.crm.convert.ContractConvert;
 import com.crm.entity.*;
@@ -13,17 +16,17 @@ import com.crm.mapper.ApprovalMapper;
 import com.crm.mapper.ContractMapper;
 import com.crm.mapper.ContractProductMapper;
 import com.crm.mapper.ManagerMapper;
-import com.crm.mapper.ProductMapper;
 import com.crm.query.ApprovalQuery;
 import com.crm.query.ContractQuery;
 import com.crm.query.IdQuery;
 import com.crm.security.user.SecurityUser;
+import com.crm.service.ContractProductService;
 import com.crm.service.ContractService;
-import com.crm.service.EmailService;
+import com.crm.utils.BatchLoadUtils;
+import com.crm.utils.DateRange;
 import com.crm.utils.DateUtils;
 import com.crm.vo.ContractTrendPieVO;
 import com.crm.vo.ContractVO;
-import com.crm.vo.ProductVO;
 import com.github.yulichang.wrapper.MPJLambdaWrapper;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,11 +34,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import com.crm.vo.ProductVO;
 import static com.crm.utils.NumberUtils.generateContractNumber;
 
 /**
@@ -55,8 +56,9 @@ public class ContractServiceImpl extends ServiceImpl<ContractMapper, Contract> i
     private final ContractProductMapper contractProductMapper;
     private final ApprovalMapper approvalMapper;
     private final ManagerMapper managerMapper;
-    private final EmailService emailService;
-    private final ProductMapper productMapper;
+    private final MailOutbox mailOutbox;
+    private final ContractProductService contractProductService;
+    private final DailyMetricsStore dailyMetricsStore;
 
     /**
      * 分页查询合同列表
@@ -66,7 +68,7 @@ public class ContractServiceImpl extends ServiceImpl<ContractMapper, Contract> i
         Integer managerId = SecurityUser.getManagerId();
         log.info("查询当前登录员工[{}]的合同列表", managerId);
 
-        Page<ContractVO> page = new Page<>(query.getPage(), query.getLimit());
+        Page<ContractVO> page = CountPage.of(query);
         MPJLambdaWrapper<Contract> wrapper = new MPJLambdaWrapper<Contract>()
                 .selectAll(Contract.class)
                 .selectAs(Customer::getName, ContractVO::getCustomerName)
@@ -95,16 +97,12 @@ public class ContractServiceImpl extends ServiceImpl<ContractMapper, Contract> i
 
         Page<ContractVO> resultPage = contractMapper.selectJoinPage(page, ContractVO.class, wrapper);
 
-        // 关联产品信息
-        resultPage.getRecords().forEach(vo -> {
-            List<ContractProduct> products = contractProductMapper.selectList(
-                    new LambdaQueryWrapper<ContractProduct>()
-                            .eq(ContractProduct::getCId, vo.getId())
-            );
-            vo.setProducts(ContractConvert.INSTANCE.convertToProductVOList(products));
-        });
+        // 关联产品信息（一次 IN 查询批量加载）
+        BatchLoadUtils.attachChildren(resultPage.getRecords(), ContractVO::getId,
+                contractProductMapper, ContractProduct::getCId,
+                ContractConvert.INSTANCE::convertToProductVOList, ContractVO::setProducts);
 
-        return new PageResult<>(resultPage.getRecords(), resultPage.getTotal());
+        return PageResult.of(resultPage, resultPage.getRecords());
     }
 
     /**
@@ -139,6 +137,7 @@ public class ContractServiceImpl extends ServiceImpl<ContractMapper, Contract> i
         if (isNew) {
             contract.setNumber(generateContractNumber());
             contractMapper.insert(contract);
+            dailyMetricsStore.contractCreated(contract.getCreateTime(), contract.getAmount());
             log.info("新增合同ID：{}", contract.getId());
         } else {
             Contract old = contractMapper.selectById(contractVO.getId());
@@ -150,118 +149,13 @@ public class ContractServiceImpl extends ServiceImpl<ContractMapper, Contract> i
                 throw new ServerException("审核中合同无法修改");
             }
             contractMapper.updateById(contract);
-        }
-
-        // 处理合同商品关联
-        handleContractProducts(contract.getId(), contractVO.getProducts());
-    }
-
-    /**
-     * 处理合同与商品的关联关系
-     */
-    private void handleContractProducts(Integer contractId, List<ProductVO> newProductList) {
-        if (newProductList == null) return;
-
-        // 查询原有商品关联
-        List<ContractProduct> oldProducts = contractProductMapper.selectList(
-                new LambdaQueryWrapper<ContractProduct>().eq(ContractProduct::getCId, contractId)
-        );
-
-        // 1. 新增商品
-        List<ProductVO> added = newProductList.stream()
-                .filter(np -> oldProducts.stream().noneMatch(op -> op.getPId().equals(np.getPId())))
-                .toList();
-        for (ProductVO p : added) {
-            Product product = checkProduct(p.getPId(), p.getCount());
-            decreaseStock(product, p.getCount());
-            ContractProduct cp = builderContractProduct(contractId, product, p.getCount());
-            contractProductMapper.insert(cp);
-        }
-
-        // 2. 修改商品数量
-        List<ProductVO> changed = newProductList.stream()
-                .filter(np -> oldProducts.stream()
-                        .anyMatch(op -> op.getPId().equals(np.getPId()) && !op.getCount().equals(np.getCount())))
-                .toList();
-        for (ProductVO p : changed) {
-            ContractProduct old = oldProducts.stream()
-                    .filter(op -> op.getPId().equals(p.getPId()))
-                    .findFirst().orElseThrow();
-
-            Product product = checkProduct(p.getPId(), 0);
-            int diff = p.getCount() - old.getCount();
-
-            // 调整库存
-            if (diff > 0) {
-                decreaseStock(product, diff);
-            } else if (diff < 0) {
-                increaseStock(product, -diff);
-            }
-
-            // 更新关联信息
-            old.setCount(p.getCount());
-            old.setPrice(product.getPrice());
-            old.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(p.getCount())));
-            contractProductMapper.updateById(old);
-        }
-
-        // 3. 删除商品
-        List<ContractProduct> removed = oldProducts.stream()
-                .filter(op -> newProductList.stream().noneMatch(np -> np.getPId().equals(op.getPId())))
-                .toList();
-        for (ContractProduct rm : removed) {
-            Product product = productMapper.selectById(rm.getPId());
-            if (product != null) {
-                increaseStock(product, rm.getCount());
+            if (contract.getAmount() != null) {
+                dailyMetricsStore.contractAmountChanged(old.getCreateTime(), old.getAmount(), contract.getAmount());
             }
-            contractProductMapper.deleteById(rm.getId());
-        }
-    }
-
-    /**
-     * 创建合同商品关联实体
-     */
-    private ContractProduct builderContractProduct(Integer contractId, Product product, int count) {
-        ContractProduct contractProduct = new ContractProduct();
-        contractProduct.setCId(contractId);
-        contractProduct.setPId(product.getId());
-        contractProduct.setPName(product.getName());
-        contractProduct.setPrice(product.getPrice());
-        contractProduct.setCount(count);
-        contractProduct.setTotalPrice(product.getPrice().multiply(new BigDecimal(count)));
-        return contractProduct;
-    }
-
-    /**
-     * 检查商品合法性及库存
-     */
-    private Product checkProduct(Integer productId, int count) {
-        Product product = productMapper.selectById(productId);
-        if (product == null) {
-            throw new ServerException("商品不存在");
-        }
-        if (count > 0 && product.getStock() < count) {
-            throw new ServerException("商品库存不足");
         }
-        return product;
-    }
-
-    /**
-     * 增加商品库存
-     */
-    private void increaseStock(Product product, int count) {
-        product.setStock(product.getStock() + count);
-        product.setSales(product.getSales() - count);
-        productMapper.updateById(product);
-    }
 
-    /**
-     * 减少商品库存
-     */
-    private void decreaseStock(Product product, int count) {
-        product.setStock(product.getStock() - count);
-        product.setSales(product.getSales() + count);
-        productMapper.updateById(product);
+        // 处理合同商品关联
+        contractProductService.syncContractProducts(contract.getId(), contractVO.getProducts());
     }
 
     /**
@@ -341,40 +235,36 @@ public class ContractServiceImpl extends ServiceImpl<ContractMapper, Contract> i
         contract.setStatus(targetStatus);
         contract.setUpdateTime(LocalDateTime.now());
         contractMapper.updateById(contract);
+        dailyMetricsStore.contractApproved(contract.getUpdateTime(), query.getType() == 0);
 
-        // 发送审核结果邮件
+        // 审核结果邮件写入发件箱，事务提交后投递
         sendApprovalEmail(contract, query.getType() == 0, query.getComment());
     }
 
     /**
      * 发送审核结果邮件
+     * 与审核结果在同一事务内写入发件箱，回滚时不会发出邮件；SMTP 投递在提交后进行，不占用事务
      */
     private void sendApprovalEmail(Contract contract, boolean isApproved, String comment) {
-        try {
-            // 查询合同创建人（销售）
-            Manager seller = managerMapper.selectById(contract.getCreaterId());
-            if (seller == null || StringUtils.isBlank(seller.getEmail())) {
-                log.warn("合同创建人邮箱不存在，无法发送邮件。合同ID: {}", contract.getId());
-                return;
-            }
-
-            // 构建邮件内容
-            String subject = isApproved ? "合同审核通过通知" : "合同审核未通过通知";
-            String content = String.format(
-                    "您的合同《%s》已%s审核！\n审核意见：%s\n合同编号：%s\n审核时间：%s",
-                    contract.getName(),
-                    isApproved ? "通过" : "未通过",
-                    comment,
-                    contract.getNumber(),
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-            );
-
-            // 发送邮件
-            emailService.sendSimpleMail(seller.getEmail(), subject, content);
-        } catch (Exception e) {
-            log.error("发送审核邮件失败", e);
-            // 邮件发送失败不影响主流程
+        // 查询合同创建人（销售）
+        Manager seller = managerMapper.selectById(contract.getCreaterId());
+        if (seller == null || StringUtils.isBlank(seller.getEmail())) {
+            log.warn("合同创建人邮箱不存在，无法发送邮件。合同ID: {}", contract.getId());
+            return;
         }
+
+        // 构建邮件内容
+        String subject = isApproved ? "合同审核通过通知" : "合同审核未通过通知";
+        String content = String.format(
+                "您的合同《%s》已%s审核！\n审核意见：%s\n合同编号：%s\n审核时间：%s",
+                contract.getName(),
+                isApproved ? "通过" : "未通过",
+                comment,
+                contract.getNumber(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
+        );
+
+        mailOutbox.enqueue(seller.getEmail(), subject, content);
     }
 
     /**
@@ -382,7 +272,7 @@ public class ContractServiceImpl extends ServiceImpl<ContractMapper, Contract> i
      */
     @Override
     public Integer countTodayApprovalTotal() {
-        String today = LocalDate.now().toString();
+        DateRange today = DateRange.today();
         Integer managerId = SecurityUser.getManagerId();
 
         int approved = contractMapper.countByStatusAndDate(
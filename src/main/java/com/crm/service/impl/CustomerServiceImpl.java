@@ -2,12 +2,15 @@ package com.crm.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.crm.common.model.CountPage;
 import com.crm.common.exception.ServerException;
+import com.crm.common.metrics.DailyMetricsStore;
 import com.crm.common.result.PageResult;
 import com.crm.convert.CustomerConvert;
 import com.crm.entity.Customer;
 import com.crm.entity.SysManager;
 import com.crm.mapper.CustomerMapper;
+import com.crm.mapper.DailyMetricsMapper;
 import com.crm.query.CustomerQuery;
 import com.crm.query.CustomerTrendQuery;
 import com.crm.query.IdQuery;
@@ -15,16 +18,20 @@ import com.crm.security.user.SecurityUser;
 import com.crm.service.CustomerService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.crm.utils.ExcelUtils;
+import com.crm.utils.TimeSeriesUtils;
 import com.crm.vo.CustomerTrendVO;
 import com.crm.vo.CustomerVO;
 import com.github.yulichang.wrapper.MPJLambdaWrapper;
 import io.micrometer.common.util.StringUtils;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -42,19 +49,32 @@ import static com.crm.utils.DateUtils.*;
  * @since 2025-10-12
  */
 @Service
+@AllArgsConstructor
 public class CustomerServiceImpl extends ServiceImpl<CustomerMapper, Customer> implements CustomerService {
+    /**
+     * 导出时每批写入行数
+     */
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+
+    private final DailyMetricsMapper dailyMetricsMapper;
+    private final DailyMetricsStore dailyMetricsStore;
+
     @Override
     public PageResult<CustomerVO> getPage(CustomerQuery query) {
-        Page<CustomerVO> page = new Page<>(query.getPage(), query.getLimit());
+        Page<CustomerVO> page = CountPage.of(query);
         MPJLambdaWrapper<Customer> wrapper = selection(query);
         Page<CustomerVO> result = baseMapper.selectJoinPage(page, CustomerVO.class, wrapper);
-        return new PageResult<>(result.getRecords(), result.getTotal());
+        return PageResult.of(result, result.getRecords());
     }
     @Override
+    @Transactional(readOnly = true)
     public void exportCustomer(CustomerQuery query, HttpServletResponse httpResponse){
-        MPJLambdaWrapper<Customer> wrapper = selection(query);
-        List<Customer> customerList = baseMapper.selectJoinList(wrapper);
-        ExcelUtils.writeExcel(httpResponse, customerList,"客户信息","客户信息", CustomerVO.class);
+        // 游标需要在事务内保持连接打开，逐批写入 xlsx，内存占用与总行数无关
+        try (Cursor<CustomerVO> cursor = baseMapper.selectExportCursor(query)) {
+            ExcelUtils.writeExcelStream(httpResponse, cursor, "客户信息", "客户信息", CustomerVO.class, EXPORT_CHUNK_SIZE);
+        } catch (IOException e) {
+            throw new ServerException("客户信息文件导出失败");
+        }
     }
     private MPJLambdaWrapper<Customer> selection(CustomerQuery  query){
         MPJLambdaWrapper<Customer> wrapper = new MPJLambdaWrapper<>();
@@ -98,6 +118,7 @@ public class CustomerServiceImpl extends ServiceImpl<CustomerMapper, Customer> i
             convert.setOwnerId(managerId);
             convert.setCreaterId(managerId);
             baseMapper.insert(convert);
+            dailyMetricsStore.customerCreated(convert.getCreateTime());
         }else{
             wrapper.ne(Customer::getId, customerVO.getId());
             Customer customer = baseMapper.selectOne(wrapper);
@@ -109,8 +130,14 @@ public class CustomerServiceImpl extends ServiceImpl<CustomerMapper, Customer> i
         }
     }
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void removeCustomer(List<Integer> ids){
+        // 只扣减删除前仍有效的客户，已删除的 id 不重复扣减
+        List<Customer> customers = baseMapper.selectBatchIds(ids);
         removeByIds(ids);
+        for (Customer customer : customers) {
+            dailyMetricsStore.customerDeleted(customer.getCreateTime());
+        }
     }
 
     @Override
@@ -140,42 +167,34 @@ public class CustomerServiceImpl extends ServiceImpl<CustomerMapper, Customer> i
     public Map<String, List> getCustomerTrendData(CustomerTrendQuery query) {
         // 1、X轴展示的时间
         List<String> timeList = new ArrayList<>();
-        // 2、Y轴展示的数据
-        List<Integer> countList = new ArrayList<>();
-        // 3、Mapper 查询返回的结果
+        // 2、Mapper 查询返回的结果
         List<CustomerTrendVO> result;
         if ("day".equals(query.getTransactionType())){
             LocalDateTime now = LocalDateTime.now();
             LocalDateTime localDateTime =now.truncatedTo(ChronoUnit.SECONDS);
             LocalDateTime startTime = now.withHour(0).withMinute(0).withSecond(0).truncatedTo(ChronoUnit.SECONDS);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
             List<String> timeRange = new ArrayList<>();
-            timeRange.add(formatter.format(startTime));
-            timeRange.add(formatter.format(localDateTime));
-            timeList = getHourData(timeRange);
+            timeRange.add(format(startTime, DATE_TIME_PATTERN));
+            timeRange.add(format(localDateTime, DATE_TIME_PATTERN));
+            timeList = getHourData(new ArrayList<>());
             query.setTimeRange(timeRange);
             result = baseMapper.getTradeStatistics(query);
         }else if("monthrange".equals(query.getTransactionType())){
+            // 日、周、月统计读取每日汇总表，成本只与天数有关
             query.setTimeFormat("%Y-%m");
             timeList = getMonthInRange(query.getTimeRange().get(0),query.getTimeRange().get(1));
-            result = baseMapper.getTradeStatisticsByDay(query);
+            result = dailyMetricsMapper.sumCustomerByFormat(query.getTimeRange().get(0), query.getTimeRange().get(1), query.getTimeFormat());
         }else if("week".equals(query.getTransactionType())){
             timeList = getWeekInRange(query.getTimeRange().get(0),query.getTimeRange().get(1));
-            result = baseMapper.getTradeStatisticsByWeek(query);
+            result = dailyMetricsMapper.sumCustomerByWeek(query.getTimeRange().get(0), query.getTimeRange().get(1));
         }else{
             query.setTimeFormat("%Y-%m-%d");
             timeList = getDatesInRange(query.getTimeRange().get(0),query.getTimeRange().get(1));
-            result = baseMapper.getTradeStatisticsByDay(query);
+            result = dailyMetricsMapper.sumCustomerByFormat(query.getTimeRange().get(0), query.getTimeRange().get(1), query.getTimeFormat());
         }
         //匹配时间点查询到的数据，没有值默认填充0
-        List<CustomerTrendVO> finalResult = result;
-        timeList.forEach((String time) -> {
-            finalResult.stream().filter((CustomerTrendVO item) -> item.getTradeTime().equals(time)).findFirst().ifPresentOrElse((CustomerTrendVO item) -> {
-                countList.add(item.getTradeCount());
-            }, () -> {
-                countList.add(0);
-            });
-        });
+        List<Integer> countList = TimeSeriesUtils.fillList(timeList, result, CustomerTrendVO::getTradeTime,
+                item -> item.getTradeCount() == null ? 0 : item.getTradeCount());
 
         Map<String, List> resultMap = new HashMap<>();
         resultMap.put("timeList", timeList);
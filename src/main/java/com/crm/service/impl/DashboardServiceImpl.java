@@ -1,12 +1,7 @@
 package com.crm.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.crm.entity.Contract;
-import com.crm.entity.Customer;
-import com.crm.entity.Lead;
-import com.crm.mapper.ContractMapper;
-import com.crm.mapper.CustomerMapper;
-import com.crm.mapper.LeadMapper;
+import com.crm.common.metrics.DailyMetrics;
+import com.crm.common.metrics.DailyMetricsStore;
 import com.crm.service.DashboardService;
 import com.crm.utils.DateUtils;
 import com.crm.vo.DashboardResponse;
@@ -30,211 +25,103 @@ import java.util.List;
 @AllArgsConstructor
 public class DashboardServiceImpl implements DashboardService {
 
-    private final CustomerMapper customerMapper;
-    private final LeadMapper leadMapper;
-    private final ContractMapper contractMapper;
+    /**
+     * 趋势统计天数
+     */
+    private static final int TREND_DAYS = 7;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DateUtils.DATE_PATTERN);
+
+    private final DailyMetricsStore dailyMetricsStore;
 
     @Override
     public DashboardResponse getDashboardStatistics() {
         DashboardResponse response = new DashboardResponse();
 
-        // 获取统计数据
-        // 获取统计数据（含新增的审核统计）
-        response.setStatistics(calculateStatistics());
-        // 获取趋势数据
+        // 从每日汇总表读取近7日数据，统计与趋势共用
+        LocalDate today = LocalDate.now();
+        DailyMetrics metrics = dailyMetricsStore.load(today.minusDays(TREND_DAYS - 1), TREND_DAYS);
+
+        // 获取统计数据（含审核统计）
+        response.setStatistics(calculateStatistics(metrics, today));
         // 获取趋势数据（含审核趋势）
-        response.setTrend(getTrendData());
+        response.setTrend(getTrendData(metrics));
 
         return response;
     }
 
     /**
-     * 计算当日统计数据及变化率
-     * 计算当日统计数据及变化率（新增合同审核统计）
+     * 计算当日统计数据及变化率（含合同审核统计）
      */
-    private StatisticsData calculateStatistics() {
+    private StatisticsData calculateStatistics(DailyMetrics metrics, LocalDate today) {
         StatisticsData data = new StatisticsData();
-        LocalDate today = LocalDate.now();
-        LocalDate yesterday = today.minusDays(1);
+        int t = metrics.indexOf(today);
+        int y = metrics.indexOf(today.minusDays(1));
 
-        // 计算新增客户数据
-        // 原有：新增客户统计
-        int todayCustomers = countCustomerByDate(today);
-        int yesterdayCustomers = countCustomerByDate(yesterday);
-        data.setNewCustomerCount(todayCustomers);
-        data.setCustomerChange(calculateChangeRate(todayCustomers, yesterdayCustomers));
+        // 新增客户统计
+        data.setNewCustomerCount(metrics.customers(t));
+        data.setCustomerChange(calculateChangeRate(metrics.customers(t), metrics.customers(y)));
 
-        // 计算新增线索数据
-        // 原有：新增线索统计
-        int todayLeads = countLeadByDate(today);
-        int yesterdayLeads = countLeadByDate(yesterday);
-        data.setNewLeadCount(todayLeads);
-        data.setLeadChange(calculateChangeRate(todayLeads, yesterdayLeads));
+        // 新增线索统计
+        data.setNewLeadCount(metrics.leads(t));
+        data.setLeadChange(calculateChangeRate(metrics.leads(t), metrics.leads(y)));
 
-        // 计算新增合同数据
-        // 原有：新增合同统计
-        int todayContracts = countContractByDate(today);
-        int yesterdayContracts = countContractByDate(yesterday);
-        data.setNewContractCount(todayContracts);
-        data.setContractChange(calculateChangeRate(todayContracts, yesterdayContracts));
+        // 新增合同统计
+        data.setNewContractCount(metrics.contracts(t));
+        data.setContractChange(calculateChangeRate(metrics.contracts(t), metrics.contracts(y)));
 
-        // 计算合同金额数据
-        // 原有：合同金额统计
-        BigDecimal todayAmount = sumContractAmountByDate(today);
-        BigDecimal yesterdayAmount = sumContractAmountByDate(yesterday);
-        data.setContractAmount(todayAmount);
-        data.setAmountChange(calculateAmountChangeRate(todayAmount, yesterdayAmount));
+        // 合同金额统计
+        data.setContractAmount(metrics.amount(t));
+        data.setAmountChange(calculateAmountChangeRate(metrics.amount(t), metrics.amount(y)));
 
-        // 新增：今日审核通过合同统计
-        int todayApproved = countApprovedContractsByDate(today);
-        int yesterdayApproved = countApprovedContractsByDate(yesterday);
-        data.setTodayApprovedContractCount(todayApproved);
-        data.setApprovedContractChange(calculateChangeRate(todayApproved, yesterdayApproved));
+        // 今日审核通过合同统计
+        data.setTodayApprovedContractCount(metrics.approved(t));
+        data.setApprovedContractChange(calculateChangeRate(metrics.approved(t), metrics.approved(y)));
 
-        // 新增：今日审核拒绝合同统计
-        int todayRejected = countRejectedContractsByDate(today);
-        int yesterdayRejected = countRejectedContractsByDate(yesterday);
-        data.setTodayRejectedContractCount(todayRejected);
-        data.setRejectedContractChange(calculateChangeRate(todayRejected, yesterdayRejected));
+        // 今日审核拒绝合同统计
+        data.setTodayRejectedContractCount(metrics.rejected(t));
+        data.setRejectedContractChange(calculateChangeRate(metrics.rejected(t), metrics.rejected(y)));
 
         return data;
     }
 
     /**
-     * 获取近7日趋势数据
-     * 获取近7日趋势数据（新增审核趋势）
+     * 获取近7日趋势数据（含审核趋势）
      */
-    private TrendData getTrendData() {
+    private TrendData getTrendData(DailyMetrics metrics) {
         TrendData trendData = new TrendData();
-        List<String> dates = new ArrayList<>();
-        List<Integer> customerData = new ArrayList<>();
-        List<Integer> leadData = new ArrayList<>();
-        List<Integer> contractData = new ArrayList<>();
-        // 新增：审核通过/拒绝趋势数据列表
-        List<Integer> approvedData = new ArrayList<>();
-        List<Integer> rejectedData = new ArrayList<>();
-
-        // 获取近7天日期
-        // 获取近7天日期及对应数据
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            dates.add(date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-            String dateStr = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            dates.add(dateStr);
-
-            // 按日期查询各类数据
-            // 原有趋势数据
-            customerData.add(countCustomerByDate(date));
-            leadData.add(countLeadByDate(date));
-            contractData.add(countContractByDate(date));
-
-            // 新增：审核趋势数据
-            approvedData.add(countApprovedContractsByDate(date));
-            rejectedData.add(countRejectedContractsByDate(date));
+        int days = metrics.getDays();
+        List<String> dates = new ArrayList<>(days);
+        List<Integer> customerData = new ArrayList<>(days);
+        List<Integer> leadData = new ArrayList<>(days);
+        List<Integer> contractData = new ArrayList<>(days);
+        List<Integer> approvedData = new ArrayList<>(days);
+        List<Integer> rejectedData = new ArrayList<>(days);
+
+        for (int i = 0; i < days; i++) {
+            dates.add(metrics.dateAt(i).format(DATE_FORMATTER));
+            customerData.add(metrics.customers(i));
+            leadData.add(metrics.leads(i));
+            contractData.add(metrics.contracts(i));
+            approvedData.add(metrics.approved(i));
+            rejectedData.add(metrics.rejected(i));
         }
 
-        // 设置原有趋势数据
         trendData.setDates(dates);
         trendData.setCustomerData(customerData);
         trendData.setLeadData(leadData);
         trendData.setContractData(contractData);
-
-        // 设置新增审核趋势数据
         trendData.setApprovedData(approvedData);
         trendData.setRejectedData(rejectedData);
 
         return trendData;
     }
 
-    /**
-     * 按日期统计客户数量
-     */
-    // ---------------------- 原有统计方法 ----------------------
-    private int countCustomerByDate(LocalDate date) {
-        LambdaQueryWrapper<Customer> wrapper = new LambdaQueryWrapper<>();
-        wrapper.apply("DATE(create_time) = {0}", date);
-        wrapper.apply("DATE(create_time) = {0}", date)
-                .eq(Customer::getDeleteFlag, 0);
-        // 过滤已删除数据
-        return Math.toIntExact(customerMapper.selectCount(wrapper));
-    }
-
-    /**
-     * 按日期统计线索数量
-     */
-    private int countLeadByDate(LocalDate date) {
-        LambdaQueryWrapper<Lead> wrapper = new LambdaQueryWrapper<>();
-        wrapper.apply("DATE(create_time) = {0}", date);
-        wrapper.apply("DATE(create_time) = {0}", date)
-                .eq(Lead::getDeleteFlag, 0);
-        // 过滤已删除数据
-        return Math.toIntExact(leadMapper.selectCount(wrapper));
-    }
-
-    /**
-     * 按日期统计合同数量
-     */
-    private int countContractByDate(LocalDate date) {
-        LambdaQueryWrapper<Contract> wrapper = new LambdaQueryWrapper<>();
-        wrapper.apply("DATE(create_time) = {0}", date);
-        wrapper.apply("DATE(create_time) = {0}", date)
-                .eq(Contract::getDeleteFlag, 0);
-        // 过滤已删除数据
-        return Math.toIntExact(contractMapper.selectCount(wrapper));
-    }
-
-    /**
-     * 按日期统计合同金额
-     */
-    private BigDecimal sumContractAmountByDate(LocalDate date) {
-        LambdaQueryWrapper<Contract> wrapper = new LambdaQueryWrapper<>();
-        wrapper.select(Contract::getAmount)
-                .apply("DATE(create_time) = {0}", date)
-                .eq(Contract::getDeleteFlag, 0); // 过滤已删除数据
-
-        List<Contract> contracts = contractMapper.selectList(wrapper);
-        BigDecimal total = BigDecimal.ZERO;
-        for (Contract contract : contracts) {
-            if (contract.getAmount() != null) {
-                total = total.add(contract.getAmount());
-            }
-        }
-        return total;
-    }
-
-
-    // ---------------------- 新增审核统计方法 ----------------------
+    // ---------------------- 工具方法 ----------------------
 
     /**
      * 计算数量变化百分比
-     * 按日期统计审核通过的合同数量（状态=2，参考Contract实体类状态定义）
      */
-    private int countApprovedContractsByDate(LocalDate date) {
-        LambdaQueryWrapper<Contract> wrapper = new LambdaQueryWrapper<>();
-        wrapper.apply("DATE(update_time) = {0}", date)
-                // 按状态更新时间统计
-                .eq(Contract::getStatus, 2)
-                // 2=审核通过
-                .eq(Contract::getDeleteFlag, 0);
-        // 过滤已删除数据
-        return Math.toIntExact(contractMapper.selectCount(wrapper));
-    }
-
-    /**
-     * 按日期统计审核拒绝的合同数量（状态=3，参考Contract实体类状态定义）
-     */
-    private int countRejectedContractsByDate(LocalDate date) {
-        LambdaQueryWrapper<Contract> wrapper = new LambdaQueryWrapper<>();
-        wrapper.apply("DATE(update_time) = {0}", date)
-                // 按状态更新时间统计
-                .eq(Contract::getStatus, 3)
-                // 3=审核未通过
-                .eq(Contract::getDeleteFlag, 0);
-        // 过滤已删除数据
-        return Math.toIntExact(contractMapper.selectCount(wrapper));
-    }
-
-    // ---------------------- 工具方法 ----------------------
     private int calculateChangeRate(int today, int yesterday) {
         if (yesterday == 0) {
             return today > 0 ? 100 : 0;
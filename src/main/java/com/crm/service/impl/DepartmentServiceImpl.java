@@ -1,10 +1,12 @@
 package com.crm.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.crm.common.dept.DepartmentHierarchy;
 import com.crm.common.exception.ServerException;
 import com.crm.common.result.PageResult;
 import com.crm.entity.Department;
 import com.crm.entity.SysManager;
+import com.crm.mapper.DepartmentClosureMapper;
 import com.crm.mapper.DepartmentMapper;
 import com.crm.mapper.SysManagerMapper;
 import com.crm.query.DepartmentQuery;
@@ -13,8 +15,8 @@ import com.crm.service.DepartmentService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -31,23 +33,19 @@ import java.util.Objects;
 @AllArgsConstructor
 public class DepartmentServiceImpl extends ServiceImpl<DepartmentMapper, Department> implements DepartmentService {
     private final SysManagerMapper sysManagerMapper;
+    private final DepartmentHierarchy departmentHierarchy;
+    private final DepartmentClosureMapper departmentClosureMapper;
     @Override
     public PageResult<Department> getPage(DepartmentQuery query) {
-        //1.构建条件查询wrapper
-        LambdaQueryWrapper<Department> wrapper = new LambdaQueryWrapper<>();
-        if (query.getName() != null && !query.getName().isEmpty()) {
-            wrapper.like(Department::getName, query.getName());
-        }
-        List<Department> departments = baseMapper.selectList(wrapper);
-        if (departments.isEmpty()) {
+        //1.按名称筛选，层级最小的部门作为顶级部门分页，子部门从层级缓存中挂载
+        String name = query.getName();
+        List<Department> topDepartment = (name != null && !name.isEmpty())
+                ? departmentHierarchy.filteredTree(department -> department.getName() != null && department.getName().contains(name))
+                : departmentHierarchy.filteredTree(department -> true);
+        if (topDepartment.isEmpty()) {
             return new PageResult<>(Collections.emptyList(), 0);
         }
 
-
-        Integer minLevel = departments.stream().map(Department::getLevel).min(Integer::compareTo).orElse(0);
-
-        List<Department> topDepartment = departments.stream().filter(department -> department.getLevel().equals(minLevel)).toList();
-
         int total = topDepartment.size();
         int formIndex = (query.getPage() - 1) * query.getLimit();
         int toIndex = Math.min(formIndex + query.getLimit(), total);
@@ -55,41 +53,15 @@ public class DepartmentServiceImpl extends ServiceImpl<DepartmentMapper, Departm
             return new PageResult<>(Collections.emptyList(), total);
         }
 
-        List<Department> result = topDepartment.subList(formIndex, toIndex);
-        result.forEach(item -> getChildList(item,departments));
-        return new PageResult<>(result,total);
-    }
-    private Department getChildList(Department department, List<Department> list) {
-        list.forEach(item -> {
-            if (department.getId().equals(item.getParentId())) {
-                department.getChildren().add(getChildList(item, list));
-            }
-        });
-        return department;
+        return new PageResult<>(topDepartment.subList(formIndex, toIndex), total);
     }
     @Override
     public List<Department> getList() {
-//        1、查询父级部门列表,如果列表为空，返回空集合
-        LambdaQueryWrapper<Department> wrapper = new LambdaQueryWrapper<Department>();
-        wrapper.eq(Department::getParentId, 0);
-        List<Department> parentDepartments = baseMapper.selectList(wrapper);
-        if (parentDepartments.isEmpty()) {
-            return new ArrayList<>();
-        }
-        wrapper.clear();
-//        2、查询子部门列表，用于父子关系的递归
-        wrapper.ne(Department::getParentId, 0);
-        List<Department> childDepartments = baseMapper.selectList(wrapper);
-        if (childDepartments.isEmpty()) {
-            return parentDepartments;
-        }
-//        3、递归构建父子关系
-        parentDepartments.forEach(item -> {
-            getChildList(item, childDepartments);
-        });
-        return parentDepartments;
+//        顶级部门 parentId 为 0，父子关系由层级缓存一次构建
+        return departmentHierarchy.tree(0);
     }
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void saveOrEditDepartment(Department department) {
 //        1、查询新增/修改的部门名称是不是已经存在了，如果存在直接抛出异常
         LambdaQueryWrapper<Department> wrapper = new LambdaQueryWrapper<Department>().eq(Department::getName, department.getName());
@@ -114,6 +86,8 @@ public class DepartmentServiceImpl extends ServiceImpl<DepartmentMapper, Departm
                 }
             }
             baseMapper.insert(department);
+            departmentClosureMapper.insertNode(department.getId(), department.getParentId());
+            departmentHierarchy.invalidate();
         } else {
             Department aDepartment = baseMapper.selectById(department.getId());
             if (aDepartment == null) {
@@ -124,41 +98,55 @@ public class DepartmentServiceImpl extends ServiceImpl<DepartmentMapper, Departm
             if (!departments.isEmpty()) {
                 throw new ServerException("部门名称已存在");
             }
-//            3、修改部门存在上级部门且上级部门的信息发生了变化时，要修改关联的父子关系关联的id
-            if (department.getParentId() != 0 && !Objects.equals(department.getParentId(), aDepartment.getParentId())) {
+//            3、修改部门存在上级部门且上级部门的信息发生了变化时，整棵子树一起移动，语句数与子树大小无关
+            boolean parentChanged = department.getParentId() != null && !Objects.equals(department.getParentId(), aDepartment.getParentId());
+            if (parentChanged && department.getParentId() != 0) {
                 Department parentDepart = baseMapper.selectById(department.getParentId());
-                String parentIds = aDepartment.getParentIds();
-                String newParentIds = "";
                 if (parentDepart == null) {
                     throw new ServerException("上级部门不存在");
                 }
+                if (departmentClosureMapper.isDescendant(department.getId(), parentDepart.getId())) {
+                    throw new ServerException("上级部门不能是当前部门或其子部门");
+                }
+                String newParentIds;
                 if (parentDepart.getParentIds() == null || parentDepart.getParentIds().isEmpty()) {
                     newParentIds = parentDepart.getId().toString();
-
                 } else {
                     newParentIds = parentDepart.getParentIds() + "," + parentDepart.getId();
                 }
-                department.setLevel(parentDepart.getLevel() + 1);
+                int level = parentDepart.getLevel() + 1;
+                int oldLevel = aDepartment.getLevel() == null ? level : aDepartment.getLevel();
+                baseMapper.moveSubtreePath(department.getId(), aDepartment.getParentIds(), newParentIds, level - oldLevel);
+                department.setLevel(level);
                 department.setParentIds(newParentIds);
-                String finalNewParentIds = newParentIds;
-                baseMapper.selectList(new LambdaQueryWrapper<Department>().eq(Department::getParentIds, parentIds)).forEach(item -> {
-                    item.setParentIds(item.getParentIds().replace(parentIds, finalNewParentIds));
-                    baseMapper.updateById(item);
-                });
+                departmentClosureMapper.detachSubtree(department.getId());
+                departmentClosureMapper.attachSubtree(department.getId(), parentDepart.getId());
+            } else if (parentChanged) {
+                // 移到顶级：子树路径去掉原祖先前缀，层级整体上移，再断开与原祖先的关系
+                int oldLevel = aDepartment.getLevel() == null ? 1 : aDepartment.getLevel();
+                baseMapper.moveSubtreePath(department.getId(), aDepartment.getParentIds(), "", 1 - oldLevel);
+                department.setLevel(1);
+                department.setParentIds("");
+                departmentClosureMapper.detachSubtree(department.getId());
             }
             baseMapper.updateById(department);
+            departmentHierarchy.invalidate();
         }
 
     }
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void removeDepartment(IdQuery query) {
 //        List<SysManager> sysManagers = sysManagerMapper.selectList(new LambdaQueryWrapper<SysManager>().eq(SysManager::getDepartmentId, query.getId()));
 //        if (!sysManagers.isEmpty()) {
 //            throw new ServerException("部门下有管理员,请解绑后再删除");
 //        }
         // 删除该部门以及子部门
-        List<Department> departments = baseMapper.selectList(new LambdaQueryWrapper<Department>().like(Department::getParentIds, query.getId()).or().eq(Department::getId, query.getId()));
-        removeBatchByIds(departments);
+        if (baseMapper.logicDeleteSubtree(query.getId()) == 0) {
+            return;
+        }
+        departmentClosureMapper.deleteSubtree(query.getId());
+        departmentHierarchy.invalidate();
     }
 
 }
\ No newline at end of file
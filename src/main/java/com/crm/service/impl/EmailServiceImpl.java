@@ -1,44 +0,0 @@
-package com.crm.service.impl;
-
-import com.crm.common.exception.ServerException;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.stereotype.Service;
-import com.crm.service.EmailService;
-
-/**
- * @author alani
- */
-@Service
-@Slf4j
-public class EmailServiceImpl implements EmailService {
-
-    @Autowired
-    private JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String from;
-    // 发件人邮箱（配置在application.yml）
-
-    @Override
-    public void sendSimpleMail(String to, String subject, String content) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(from);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(content);
-
-        try {
-            mailSender.send(message);
-            log.info("邮件发送成功：收件人={}, 主题={}", to, subject);
-        } catch (MailException e) {
-            log.error("邮件发送失败", e);
-            throw new ServerException("邮件发送失败，请联系管理员");
-        }
-    }
-}
\ No newline at end of file
@@ -2,7 +2,9 @@ package com.crm.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.crm.common.model.CountPage;
 import com.crm.common.exception.ServerException;
+import com.crm.common.metrics.DailyMetricsStore;
 import com.crm.common.result.PageResult;
 import com.crm.convert.CustomerConvert;
 import com.crm.entity.Customer;
@@ -19,8 +21,11 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import springfox.documentation.oas.mappers.SecurityMapper;
 
+import java.util.List;
+
 /**
  * <p>
  * 服务实现类
@@ -34,11 +39,12 @@ import springfox.documentation.oas.mappers.SecurityMapper;
 public class LeadServiceImpl extends ServiceImpl<LeadMapper, Lead> implements LeadService {
     private final CustomerMapper customerMapper;
     private final FollowUpMapper followUpMapper;
+    private final DailyMetricsStore dailyMetricsStore;
 
 
     @Override
     public PageResult<Lead> getPage(LeadQuery query) {
-        Page<Lead> page = new Page<>(query.getPage(), query.getLimit());
+        Page<Lead> page = CountPage.of(query);
         LambdaQueryWrapper<Lead> wrapper = new LambdaQueryWrapper<>();
         if (StringUtils.isNotBlank(query.getName())) {
             wrapper.like(Lead::getName, query.getName());
@@ -52,11 +58,12 @@ public class LeadServiceImpl extends ServiceImpl<LeadMapper, Lead> implements Le
         wrapper.orderByDesc(Lead::getCreateTime);
         Page<Lead> leadPage = baseMapper.selectPage(page, wrapper);
 
-        return new PageResult<>(leadPage.getRecords(), leadPage.getTotal());
+        return PageResult.of(leadPage, leadPage.getRecords());
     }
 
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public void saveOrEdit(Lead lead) {
         LambdaQueryWrapper<Lead> wrapper = new LambdaQueryWrapper<Lead>().eq(Lead::getName, lead.getName());
         Customer customer = customerMapper.selectOne(new LambdaQueryWrapper<Customer>().eq(Customer::getPhone, lead.getPhone()));
@@ -70,6 +77,7 @@ public class LeadServiceImpl extends ServiceImpl<LeadMapper, Lead> implements Le
             }
             lead.setOwnerId(SecurityUser.getManagerId());
             baseMapper.insert(lead);
+            dailyMetricsStore.leadCreated(lead.getCreateTime());
         } else {
             wrapper.ne(Lead::getId, lead.getId());
             Lead selectLead = baseMapper.selectOne(wrapper);
@@ -81,7 +89,15 @@ public class LeadServiceImpl extends ServiceImpl<LeadMapper, Lead> implements Le
                 idQuery.setId(lead.getId());
                 convertToCustomer(idQuery);
             } else {
-                customerMapper.delete(new LambdaQueryWrapper<Customer>().eq(Customer::getPhone, lead.getPhone()));
+                // 只扣减删除前仍有效的客户，与 CustomerServiceImpl.removeCustomer 一致
+                LambdaQueryWrapper<Customer> customerWrapper = new LambdaQueryWrapper<Customer>().eq(Customer::getPhone, lead.getPhone());
+                List<Customer> customers = customerMapper.selectList(customerWrapper);
+                if (!customers.isEmpty()) {
+                    customerMapper.deleteBatchIds(customers.stream().map(Customer::getId).toList());
+                    for (Customer deleted : customers) {
+                        dailyMetricsStore.customerDeleted(deleted.getCreateTime());
+                    }
+                }
             }
             baseMapper.updateById(lead);
         }
@@ -99,6 +115,7 @@ public class LeadServiceImpl extends ServiceImpl<LeadMapper, Lead> implements Le
         customer.setId(null);
         customer.setCreaterId(SecurityUser.getManagerId());
         customerMapper.insert(customer);
+        dailyMetricsStore.customerCreated(customer.getCreateTime());
 //       2、修改线索状态
         lead.setStatus(1);
         baseMapper.updateById(lead);
@@ -3,25 +3,41 @@ package com.crm.service.impl;
 import com.alibaba.excel.util.StringUtils;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.crm.common.aop.OperLogAsyncWriter;
+import com.crm.common.model.SeekCursor;
+import com.crm.common.result.CursorPageResult;
 import com.crm.common.result.PageResult;
 import com.crm.entity.OperLog;
 import com.crm.mapper.OperLogMapper;
+import com.crm.query.OperLogCursorQuery;
 import com.crm.query.OperLogQuery;
+import com.crm.schedule.OperLogPartitionManager;
 import com.crm.service.OperLogService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.crm.utils.AddressUtils;
+import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
+@AllArgsConstructor
 public class OperLogServiceImpl extends ServiceImpl<OperLogMapper, OperLog> implements OperLogService {
+    private final OperLogAsyncWriter operLogAsyncWriter;
+    private final OperLogPartitionManager operLogPartitionManager;
 
     @Override
     public void recordOperLog(OperLog operLog) {
-        operLog.setOperLocation(AddressUtils.getRealAddressByIP(operLog.getOperIp()));
+        // 操作时间在请求线程记录，地址解析和入库由后台线程批量完成
         operLog.setOperTime(LocalDateTime.now());
-        baseMapper.insert(operLog);
+        operLogAsyncWriter.submit(operLog);
+    }
+
+    @Override
+    public Map<String, Long> writerStats() {
+        return operLogAsyncWriter.stats();
     }
 
     // 实现分页查询
@@ -35,8 +51,62 @@ public class OperLogServiceImpl extends ServiceImpl<OperLogMapper, OperLog> impl
         if (query.getOperTime() != null && !query.getOperTime().isEmpty()) {
             wrapper.between(OperLog::getOperTime, query.getOperTime().get(0), query.getOperTime().get(1));
         }
+        withinRetention(wrapper);
         wrapper.orderByDesc(OperLog::getOperTime);
         Page<OperLog> result = baseMapper.selectPage(page, wrapper);
         return new PageResult<>(result.getRecords(), result.getTotal());
     }
+
+    /**
+     * 游标分页：按 (oper_time, id) 倒序取 limit + 1 条，多出的一条只用于判断是否还有下一页；
+     * 总数仅在第一页按需统计，无筛选条件时取表统计信息中的估算值
+     */
+    @Override
+    public CursorPageResult<OperLog> seek(OperLogCursorQuery query) {
+        int limit = query.getLimit();
+        LambdaQueryWrapper<OperLog> wrapper = withinRetention(seekFilter(query));
+        if (StringUtils.isNotBlank(query.getCursor())) {
+            SeekCursor cursor = SeekCursor.decode(query.getCursor());
+            wrapper.and(w -> w.lt(OperLog::getOperTime, cursor.time())
+                    .or(o -> o.eq(OperLog::getOperTime, cursor.time()).lt(OperLog::getId, cursor.id())));
+        }
+        wrapper.orderByDesc(OperLog::getOperTime).orderByDesc(OperLog::getId).last("LIMIT " + (limit + 1));
+        List<OperLog> rows = baseMapper.selectList(wrapper);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            OperLog last = rows.get(limit - 1);
+            nextCursor = new SeekCursor(last.getOperTime(), last.getId()).encode();
+        }
+        CursorPageResult<OperLog> result = new CursorPageResult<>(rows, nextCursor);
+        if (query.isWithTotal() && StringUtils.isBlank(query.getCursor())) {
+            LambdaQueryWrapper<OperLog> countWrapper = seekFilter(query);
+            if (countWrapper.isEmptyOfWhere()) {
+                result.setTotal(baseMapper.estimateRows());
+                result.setApproximate(true);
+            } else {
+                result.setTotal(baseMapper.selectCount(withinRetention(countWrapper)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 表已分区时限定在保留期内，oper_time 下界使 MySQL 只扫描保留期内的分区
+     */
+    private LambdaQueryWrapper<OperLog> withinRetention(LambdaQueryWrapper<OperLog> wrapper) {
+        LocalDateTime start = operLogPartitionManager.retentionStart();
+        return wrapper.ge(start != null, OperLog::getOperTime, start);
+    }
+
+    private static LambdaQueryWrapper<OperLog> seekFilter(OperLogCursorQuery query) {
+        LambdaQueryWrapper<OperLog> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(StringUtils.isNotBlank(query.getOperName()), OperLog::getOperName, query.getOperName());
+        wrapper.eq(StringUtils.isNotBlank(query.getOperUrl()), OperLog::getOperUrl, query.getOperUrl());
+        if (query.getOperTime() != null && query.getOperTime().size() == 2) {
+            wrapper.between(OperLog::getOperTime, query.getOperTime().get(0), query.getOperTime().get(1));
+        }
+        return wrapper;
+    }
 }
\ No newline at end of file
@@ -2,18 +2,19 @@ package com.crm.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.crm.common.model.CountPage;
 import com.crm.common.exception.ServerException;
 import com.crm.common.model.BaseServiceImpl;
 import com.crm.common.result.PageResult;
 import com.crm.entity.Product;
 import com.crm.mapper.ProductMapper;
 import com.crm.query.ProductQuery;
+import com.crm.schedule.ProductShelfScheduler;
 import com.crm.service.ProductService;
 import io.micrometer.common.util.StringUtils;
+import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-
 /**
  * <p>
  *  服务实现类
@@ -23,12 +24,14 @@ import java.time.LocalDateTime;
  * @since 2025-10-12
  */
 @Service
+@AllArgsConstructor
 public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product> implements ProductService {
+    private final ProductShelfScheduler productShelfScheduler;
 
     @Override
     public PageResult<Product> getPage(ProductQuery query) {
         // 1.声明分页参数
-        Page<Product> page = new Page<>(query.getPage(), query.getLimit());
+        Page<Product> page = CountPage.of(query);
         LambdaQueryWrapper<Product> wrapper = new LambdaQueryWrapper<>();
         // 2.添加查询条件
         if (StringUtils.isNotBlank(query.getName())) {
@@ -39,7 +42,7 @@ public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product>
         }
         // 3.查询商品分页列表
         Page<Product> result = baseMapper.selectPage(page, wrapper);
-        return new PageResult<>(result.getRecords(), page.getTotal());
+        return PageResult.of(page, result.getRecords());
     }
 
     @Override
@@ -59,26 +62,8 @@ public class ProductServiceImpl extends BaseServiceImpl<ProductMapper, Product>
             }
             baseMapper.updateById(product);
         }
-    }
-
-    @Override
-    public void batchUpdateProductState() {
-        //定时下架时间早于当前定时任务执行的时间，修改商品状态
-        LambdaQueryWrapper<Product> wrapper = new LambdaQueryWrapper<Product>()
-                .lt(Product::getOffShelfTime, LocalDateTime.now());
-        Product offProduct = new Product();
-        offProduct.setStatus(2);
-        offProduct.setOffShelfTime(null);
-        baseMapper.update(offProduct, wrapper);
-
-        wrapper.clear();
-        //定时上架时间早于当前定时任务执行时间，修改商品状态
-        wrapper.lt(Product::getOnShelfTime, LocalDateTime.now());
-        Product onProduct = new Product();
-        onProduct.setStatus(1);
-        onProduct.setOnShelfTime(null);
-        baseMapper.update(onProduct, wrapper);
-
+        // 定时上下架时间可能变化，按保存后的数据重新排期
+        productShelfScheduler.reschedule(product.getId());
     }
 
 }
\ No newline at end of file
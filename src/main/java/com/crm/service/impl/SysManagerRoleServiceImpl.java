@@ -4,8 +4,10 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.crm.common.exception.ServerException;
 import com.crm.entity.SysManagerRole;
 import com.crm.mapper.SysManagerRoleMapper;
+import com.crm.security.cache.PermissionCache;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.crm.service.SysManagerRoleService;
+import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,7 +21,10 @@ import java.util.List;
 
  */
 @Service
+@AllArgsConstructor
 public class SysManagerRoleServiceImpl extends ServiceImpl<SysManagerRoleMapper, SysManagerRole> implements SysManagerRoleService {
+    private final PermissionCache permissionCache;
+
     @Override
     public void saveOrUpdate(Integer managerId, Integer roleId) {
         SysManagerRole sysManagerRole = baseMapper.selectOne(new LambdaQueryWrapper<SysManagerRole>()
@@ -30,6 +35,7 @@ public class SysManagerRoleServiceImpl extends ServiceImpl<SysManagerRoleMapper,
         }
         sysManagerRole.setRoleId(roleId);
         saveOrUpdate(sysManagerRole);
+        permissionCache.bumpVersion();
     }
 
     @Override
@@ -37,12 +43,14 @@ public class SysManagerRoleServiceImpl extends ServiceImpl<SysManagerRoleMapper,
     public void removeByManagerId(List<Integer> idList) {
         baseMapper.delete(new LambdaQueryWrapper<SysManagerRole>()
                 .in(SysManagerRole::getManagerId, idList));
+        permissionCache.bumpVersion();
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void deleteByRoleIdList(List<Integer> roleIdList) {
         remove(new LambdaQueryWrapper<SysManagerRole>().in(SysManagerRole::getRoleId, roleIdList));
+        permissionCache.bumpVersion();
     }
 
     @Override
@@ -3,6 +3,7 @@ package com.crm.service.impl;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.crm.common.model.CountPage;
 import com.crm.common.exception.ServerException;
 import com.crm.common.result.PageResult;
 import com.crm.convert.SysManagerConvert;
@@ -34,9 +35,9 @@ public class SysManagerServiceImpl extends ServiceImpl<SysManagerMapper, SysMana
 
     @Override
     public PageResult<SysManagerVO> page(SysManagerQuery query) {
-        Page<SysManagerVO> page = new Page<>(query.getPage(), query.getLimit());
+        Page<SysManagerVO> page = CountPage.of(query);
         List<SysManagerVO> list = baseMapper.getManagerPage(page, query);
-        return new PageResult<>(list, page.getTotal());
+        return PageResult.of(page, list);
     }
 
     @Override
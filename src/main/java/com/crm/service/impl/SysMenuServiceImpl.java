@@ -1,6 +1,5 @@
 package com.crm.service.impl;
 
-import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import com.crm.common.constant.Constant;
@@ -11,6 +10,8 @@ import com.crm.enums.MenuTypeEnum;
 import com.crm.mapper.SysMenuMapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.crm.query.SysMenuQuery;
+import com.crm.security.cache.MenuTreeCache;
+import com.crm.security.cache.PermissionCache;
 import com.crm.security.user.ManagerDetail;
 import com.crm.service.SysMenuService;
 import com.crm.service.SysRoleMenuService;
@@ -21,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -32,7 +34,14 @@ import java.util.*;
 @Service
 @AllArgsConstructor
 public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> implements SysMenuService {
+    /**
+     * 同级菜单按排序值升序，未设置排序值的排在最后
+     */
+    private static final Comparator<SysMenuVO> SORT_ORDER = Comparator.comparing(SysMenuVO::getSort, Comparator.nullsLast(Integer::compareTo));
+
     private final SysRoleMenuService sysRoleMenuService;
+    private final PermissionCache permissionCache;
+    private final MenuTreeCache menuTreeCache;
 
     @Override
     public List<SysMenuVO> getManagerMenuList(ManagerDetail manager, String type) {
@@ -48,21 +57,22 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
     }
 
     @Override
-    public Set<String> getManagerAuthority(ManagerDetail manager) {
+    public MenuTreeCache.MenuTree getManagerMenuTree(ManagerDetail manager, String type) {
         // 系统管理员，拥有最高权限
-        List<String> authorityList;
-        authorityList = baseMapper.getManagerAuthorityList(manager.getId());
-
-        // 用户权限列表
-        Set<String> permsSet = new HashSet<>();
-        for (String authority : authorityList) {
-            if (StrUtil.isBlank(authority)) {
-                continue;
-            }
-            permsSet.addAll(Arrays.asList(authority.trim().split(",")));
+        if ("admin".equals(manager.getAccount())) {
+            return menuTreeCache.get("admin:" + type, () -> getManagerMenuList(manager, type));
         }
+        // 相同角色集合的管理员共用同一棵菜单树
+        List<Integer> roleIds = permissionCache.getManagerRoles(manager.getId()).stream().sorted().toList();
+        String key = roleIds.stream().map(String::valueOf).collect(Collectors.joining(",")) + ":" + type;
+        return menuTreeCache.get(key, () -> roleIds.isEmpty() ? new ArrayList<>()
+                : TreeUtils.build(SysMenuConvert.INSTANCE.convertList(baseMapper.getRoleMenuList(roleIds, type, false))));
+    }
 
-        return permsSet;
+    @Override
+    public Set<String> getManagerAuthority(ManagerDetail manager) {
+        // 用户权限列表，按角色缓存
+        return permissionCache.getManagerAuthority(manager.getId());
     }
 
     @Override
@@ -96,6 +106,7 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
         SysMenu entity = SysMenuConvert.INSTANCE.convert(vo);
         // 保存菜单
         baseMapper.insert(entity);
+        permissionCache.bumpVersion();
     }
 
     @Override
@@ -108,6 +119,7 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
         }
         // 更新菜单
         updateById(entity);
+        permissionCache.bumpVersion();
     }
 
     @Override
@@ -122,13 +134,14 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
 
         // 删除角色菜单关系
         sysRoleMenuService.deleteByMenuId(id);
+        permissionCache.bumpVersion();
     }
 
     @Override
     public List<SysMenu> getFormMenuList() {
         LambdaQueryWrapper<SysMenu> wrapper = new LambdaQueryWrapper<>();
         wrapper.in(SysMenu::getType, MenuTypeEnum.MENU.name(), MenuTypeEnum.MENU_DIR.name());
-        List<SysMenuVO> treeMenu = TreeUtils.build(SysMenuConvert.INSTANCE.convertList(baseMapper.selectList(wrapper)), Constant.ROOT);
+        List<SysMenuVO> treeMenu = TreeUtils.build(SysMenuConvert.INSTANCE.convertList(baseMapper.selectList(wrapper)), Constant.ROOT, SORT_ORDER);
         List<SysMenu> menuList = new ArrayList<>();
         SysMenu sysMenu = new SysMenu();
         sysMenu.setId(0);
@@ -156,7 +169,7 @@ public class SysMenuServiceImpl extends ServiceImpl<SysMenuMapper, SysMenu> impl
 //        wrapper.ne(SysMenu::getTitle,"菜单管理");
 //        wrapper.orderByAsc(SysMenu::getSort);
         List<SysMenu> menuList = baseMapper.selectList(wrapper);
-        return TreeUtils.build(SysMenuConvert.INSTANCE.convertList(menuList), Constant.ROOT);
+        return TreeUtils.build(SysMenuConvert.INSTANCE.convertList(menuList), Constant.ROOT, SORT_ORDER);
     }
 
     @Override
@@ -4,8 +4,10 @@ import cn.hutool.core.collection.CollUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.crm.entity.SysRoleMenu;
 import com.crm.mapper.SysRoleMenuMapper;
+import com.crm.security.cache.PermissionCache;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.crm.service.SysRoleMenuService;
+import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,7 +23,10 @@ import java.util.stream.Collectors;
 
  */
 @Service
+@AllArgsConstructor
 public class SysRoleMenuServiceImpl extends ServiceImpl<SysRoleMenuMapper, SysRoleMenu> implements SysRoleMenuService {
+    private final PermissionCache permissionCache;
+
     @Override
     public List<Integer> getMenuIdList(Integer roleId){
         return baseMapper.getMenuIdList(roleId);
@@ -31,6 +36,7 @@ public class SysRoleMenuServiceImpl extends ServiceImpl<SysRoleMenuMapper, SysRo
     @Transactional(rollbackFor = Exception.class)
     public void deleteByMenuId(Integer menuId) {
         remove(new LambdaQueryWrapper<SysRoleMenu>().eq(SysRoleMenu::getMenuId, menuId));
+        permissionCache.bumpVersion();
     }
 
     @Override
@@ -59,6 +65,9 @@ public class SysRoleMenuServiceImpl extends ServiceImpl<SysRoleMenuMapper, SysRo
             LambdaQueryWrapper<SysRoleMenu> queryWrapper = new LambdaQueryWrapper<>();
             remove(queryWrapper.eq(SysRoleMenu::getRoleId, roleId).in(SysRoleMenu::getMenuId, deleteMenuIdList));
         }
+        if (CollUtil.isNotEmpty(insertMenuIdList) || CollUtil.isNotEmpty(deleteMenuIdList)) {
+            permissionCache.bumpVersion();
+        }
     }
 
 
@@ -66,5 +75,6 @@ public class SysRoleMenuServiceImpl extends ServiceImpl<SysRoleMenuMapper, SysRo
     @Transactional(rollbackFor = Exception.class)
     public void deleteByRoleIdList(List<Integer> roleIdList) {
         remove(new LambdaQueryWrapper<SysRoleMenu>().in(SysRoleMenu::getRoleId, roleIdList));
+        permissionCache.bumpVersion();
     }
 }
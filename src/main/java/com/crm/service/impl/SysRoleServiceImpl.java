@@ -2,6 +2,7 @@ package com.crm.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.crm.common.model.CountPage;
 import com.crm.common.result.PageResult;
 import com.crm.convert.SysRoleConvert;
 import com.crm.entity.SysRole;
@@ -35,7 +36,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
 
     @Override
     public PageResult<SysRoleVO> page(SysRoleQuery query) {
-        Page<SysRole> page = new Page<>(query.getPage(), query.getLimit());
+        Page<SysRole> page = CountPage.of(query);
         LambdaQueryWrapper<SysRole> wrapper = new LambdaQueryWrapper<>();
         if (query.getName() != null) {
             wrapper.like(SysRole::getName, query.getName());
@@ -51,7 +52,7 @@ public class SysRoleServiceImpl extends ServiceImpl<SysRoleMapper, SysRole> impl
             }
 
         }
-        return new PageResult<>(list, page.getTotal());
+        return PageResult.of(page, list);
     }
 
     @Override
@@ -1,45 +0,0 @@
-package com.crm.utils;
-
-import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONObject;
-import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-/**
- * 获取地址类
- *
- * @author ruoyi
- */
-public class AddressUtils {
-    private static final Logger log = LoggerFactory.getLogger(AddressUtils.class);
-
-    // IP地址查询
-    public static final String IP_URL = "http://whois.pconline.com.cn/ipJson.jsp";
-
-    // 未知地址
-    public static final String UNKNOWN = "未获取到请求地址";
-
-    public static String getRealAddressByIP(String ip) {
-        // 内网不查询
-        if (IpUtils.internalIp(ip)) {
-            return "内网IP";
-        }
-
-        try {
-            String rspStr = HttpUtils.sendGet(IP_URL, "ip=" + ip + "&json=true", "GBK");
-            if (StringUtils.isBlank(rspStr)) {
-                log.error("获取地理位置异常 {}", ip);
-                return UNKNOWN;
-            }
-            JSONObject obj = JSON.parseObject(rspStr);
-            String region = obj.getString("pro");
-            String city = obj.getString("city");
-            return String.format("%s %s", region, city);
-        } catch (Exception e) {
-            log.error("获取地理位置异常 {}", ip);
-        }
-
-        return UNKNOWN;
-    }
-}
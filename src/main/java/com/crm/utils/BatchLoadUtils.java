@@ -0,0 +1,87 @@
+package com.crm.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 关联数据批量加载工具类
+ * 分页列表挂载子表数据时，用一次 IN 查询代替逐行查询，避免 N+1 问题
+ *
+ * @author crm
+ */
+public class BatchLoadUtils {
+
+    /**
+     * 批量加载子表数据，并按外键分组挂载到父对象
+     *
+     * @param parents     父对象列表，如：当前页的 ContractVO
+     * @param parentKey   父对象主键，如：ContractVO::getId
+     * @param mapper      子表 Mapper
+     * @param childColumn 子表外键列，如：ContractProduct::getCId
+     * @param converter   子表实体列表转换，如：ContractConvert.INSTANCE::convertToProductVOList
+     * @param setter      挂载方法，如：ContractVO::setProducts
+     */
+    public static <P, C, K, R> void attachChildren(List<P> parents,
+                                                   Function<P, K> parentKey,
+                                                   BaseMapper<C> mapper,
+                                                   SFunction<C, K> childColumn,
+                                                   Function<List<C>, List<R>> converter,
+                                                   BiConsumer<P, List<R>> setter) {
+        if (parents == null || parents.isEmpty()) {
+            return;
+        }
+
+        // 收集父对象主键，去重
+        Set<K> keys = new LinkedHashSet<>(parents.size());
+        for (P parent : parents) {
+            K key = parentKey.apply(parent);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+
+        Map<K, List<C>> grouped = loadGrouped(keys, mapper, childColumn);
+        for (P parent : parents) {
+            List<C> children = grouped.getOrDefault(parentKey.apply(parent), Collections.emptyList());
+            setter.accept(parent, converter.apply(children));
+        }
+    }
+
+    /**
+     * 按外键批量查询子表数据，并按外键分组
+     *
+     * @param keys        外键集合
+     * @param mapper      子表 Mapper
+     * @param childColumn 子表外键列
+     * @return 外键 -> 子表数据列表
+     */
+    public static <C, K> Map<K, List<C>> loadGrouped(Collection<K> keys,
+                                                     BaseMapper<C> mapper,
+                                                     SFunction<C, K> childColumn) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<C> children = mapper.selectList(new LambdaQueryWrapper<C>().in(childColumn, keys));
+
+        Map<K, List<C>> grouped = new HashMap<>(Math.max(16, keys.size() * 2));
+        for (C child : children) {
+            K key = childColumn.apply(child);
+            grouped.computeIfAbsent(Objects.requireNonNull(key), k -> new ArrayList<>()).add(child);
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,69 @@
+package com.crm.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 左闭右开的时间区间 [start, end)
+ * 按日期查询时不再对列使用 DATE(create_time) = ?，而是比较列的原始值：
+ * create_time &gt;= start AND create_time &lt; end，可以走索引范围扫描
+ * <p>
+ * XML 中使用：create_time &amp;gt;= #{range.start} AND create_time &amp;lt; #{range.end}
+ *
+ * @author crm
+ */
+@Getter
+public class DateRange {
+    /**
+     * 起始时间（包含）
+     */
+    private final LocalDateTime start;
+    /**
+     * 结束时间（不包含）
+     */
+    private final LocalDateTime end;
+
+    private DateRange(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * 某一天：[date 00:00:00, date + 1 00:00:00)
+     */
+    public static DateRange ofDay(LocalDate date) {
+        return new DateRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * 从 start 开始的连续 days 天
+     */
+    public static DateRange ofDays(LocalDate start, int days) {
+        return new DateRange(start.atStartOfDay(), start.plusDays(days).atStartOfDay());
+    }
+
+    /**
+     * 起止日期均包含：[from 00:00:00, to + 1 00:00:00)
+     */
+    public static DateRange between(LocalDate from, LocalDate to) {
+        return new DateRange(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    public static DateRange today() {
+        return ofDay(LocalDate.now());
+    }
+
+    /**
+     * 为查询条件追加 column &gt;= start AND column &lt; end
+     *
+     * @param wrapper 查询条件
+     * @param column  时间列，如：Customer::getCreateTime
+     */
+    public <T> LambdaQueryWrapper<T> apply(LambdaQueryWrapper<T> wrapper, SFunction<T, ?> column) {
+        return wrapper.ge(column, start).lt(column, end);
+    }
+}
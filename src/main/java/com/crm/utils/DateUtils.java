@@ -1,6 +1,7 @@
 package com.crm.utils;
 
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
@@ -9,6 +10,8 @@ import java.time.temporal.WeekFields;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author crm
@@ -29,6 +32,28 @@ public class DateUtils {
      */
     public final static String DATE_NUMBER_PATTERN = "yyyyMMdd";
 
+    /**
+     * 已创建的格式化器，DateTimeFormatter 线程安全，可复用
+     */
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    private static final DateTimeFormatter DATE_FORMATTER = formatter(DATE_PATTERN);
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = formatter(DATE_TIME_PATTERN);
+    private static final DateTimeFormatter MONTH_FORMATTER = formatter("yyyy-MM");
+    private static final DateTimeFormatter YEAR_FORMATTER = formatter("yyyy");
+    private static final WeekFields CHINA_WEEK_FIELDS = WeekFields.of(Locale.CHINA);
+
+    /**
+     * 小时刻度 00:00 - 23:00
+     */
+    private static final String[] HOURS = new String[24];
+
+    static {
+        for (int i = 0; i < HOURS.length; i++) {
+            HOURS[i] = String.format("%02d:00", i);
+        }
+    }
+
     /**
      * 日期格式化 日期格式为：yyyy-MM-dd
      *
@@ -48,8 +73,7 @@ public class DateUtils {
      */
     public static String format(LocalDateTime date, String pattern) {
         if (date != null) {
-            DateTimeFormatter df = DateTimeFormatter.ofPattern(pattern);
-            return df.format(date);
+            return formatter(pattern).format(date);
         }
         return null;
     }
@@ -62,7 +86,7 @@ public class DateUtils {
      * @return 返回Date
      */
     public static LocalDateTime parse(String date, String pattern) {
-        return LocalDateTime.parse(date, DateTimeFormatter.ofPattern(pattern));
+        return LocalDateTime.parse(date, formatter(pattern));
     }
 
 
@@ -75,8 +99,7 @@ public class DateUtils {
      */
     public static String format(TemporalAccessor temporal, String pattern) {
         if (temporal != null) {
-            DateTimeFormatter df = DateTimeFormatter.ofPattern(pattern);
-            return df.format(temporal);
+            return formatter(pattern).format(temporal);
         }
         return null;
     }
@@ -89,9 +112,9 @@ public class DateUtils {
      */
     public static List<String> getHourData(List<String> timeList) {
         //            获取当前时间
-        LocalDateTime now = LocalDateTime.now();
-        for (int i = 0; i <= now.getHour(); i++) {
-            timeList.add(String.format("%02d:00", i));
+        int hour = LocalDateTime.now().getHour();
+        for (int i = 0; i <= hour; i++) {
+            timeList.add(HOURS[i]);
         }
         return timeList;
     }
@@ -104,65 +127,59 @@ public class DateUtils {
      * @return
      */
     public static List<String> getDatesInRange(String startDate, String endDate) {
-        List<String> dates = new ArrayList<>();
-        // 计算两个日期之间的天数
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        long daysBetween = ChronoUnit.DAYS.between(LocalDateTime.parse(startDate, formatter), LocalDateTime.parse(endDate, formatter));
-
+        LocalDate start = LocalDateTime.parse(startDate, DATE_TIME_FORMATTER).toLocalDate();
+        LocalDate end = LocalDateTime.parse(endDate, DATE_TIME_FORMATTER).toLocalDate();
+        long daysBetween = ChronoUnit.DAYS.between(start, end);
+        List<String> dates = new ArrayList<>((int) Math.max(0, daysBetween + 1));
         // 遍历每一天并添加到列表中
-        for (int i = 0; i <= daysBetween; i++) {
-            LocalDateTime date = LocalDateTime.parse(startDate, formatter).plusDays(i);
-            DateTimeFormatter customFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            String formattedDate = date.format(customFormatter);
-            dates.add(formattedDate);
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            dates.add(DATE_FORMATTER.format(date));
         }
         return dates;
     }
 
 
     public static List<String> getMonthInRange(String startDate, String endDate) {
-        List<String> monthList = new ArrayList<>();
-        DateTimeFormatter customFormatter = DateTimeFormatter.ofPattern("yyyy-MM");
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        long monthsBetween = ChronoUnit.MONTHS.between(LocalDateTime.parse(startDate, formatter), LocalDateTime.parse(endDate, formatter));
+        LocalDateTime start = LocalDateTime.parse(startDate, DATE_TIME_FORMATTER);
+        long monthsBetween = ChronoUnit.MONTHS.between(start, LocalDateTime.parse(endDate, DATE_TIME_FORMATTER));
+        List<String> monthList = new ArrayList<>((int) Math.max(0, monthsBetween + 1));
         for (int i = 0; i <= monthsBetween; i++) {
-            LocalDateTime currentDate = LocalDateTime.parse(startDate, formatter).plusMonths(i);
-            String formattedDate = currentDate.format(customFormatter);
-            monthList.add(formattedDate);
+            monthList.add(MONTH_FORMATTER.format(start.plusMonths(i)));
         }
         return monthList;
     }
 
 
     public static List<String> getYearInRange(String startDate, String endDate) {
-        List<String> yearList = new ArrayList<>();
-        DateTimeFormatter customFormatter = DateTimeFormatter.ofPattern("yyyy");
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        long yearsBetween = ChronoUnit.YEARS.between(LocalDateTime.parse(startDate, formatter), LocalDateTime.parse(endDate, formatter));
+        LocalDateTime start = LocalDateTime.parse(startDate, DATE_TIME_FORMATTER);
+        long yearsBetween = ChronoUnit.YEARS.between(start, LocalDateTime.parse(endDate, DATE_TIME_FORMATTER));
+        List<String> yearList = new ArrayList<>((int) Math.max(0, yearsBetween + 1));
         for (int i = 0; i <= yearsBetween; i++) {
-            LocalDateTime currentDate = LocalDateTime.parse(startDate, formatter).plusYears(i);
-            String formattedDate = currentDate.format(customFormatter);
-            yearList.add(formattedDate);
+            yearList.add(YEAR_FORMATTER.format(start.plusYears(i)));
         }
         return yearList;
     }
 
 
     public static List<String> getWeekInRange(String startDate, String endDate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        LocalDateTime startDateTime = LocalDateTime.parse(startDate, formatter);
-        LocalDateTime endDateTime = LocalDateTime.parse(endDate, formatter);
+        LocalDateTime startDateTime = LocalDateTime.parse(startDate, DATE_TIME_FORMATTER);
+        LocalDateTime endDateTime = LocalDateTime.parse(endDate, DATE_TIME_FORMATTER);
 
         // 使用中国地区规则（周一为一周的开始）
-        WeekFields weekFields = WeekFields.of(Locale.CHINA);
-
-        int startWeek = startDateTime.get(weekFields.weekOfYear());
-        int endWeek = endDateTime.get(weekFields.weekOfYear());
-        List<String> weekList = new ArrayList<>();
+        int startWeek = startDateTime.get(CHINA_WEEK_FIELDS.weekOfYear());
+        int endWeek = endDateTime.get(CHINA_WEEK_FIELDS.weekOfYear());
+        List<String> weekList = new ArrayList<>(Math.max(0, endWeek - startWeek + 1));
         for (int i = startWeek; i <= endWeek; i++) {
             weekList.add(String.valueOf(i));
         }
 
         return weekList;
     }
-}
\ No newline at end of file
+
+    /**
+     * 按格式获取缓存的 DateTimeFormatter
+     */
+    public static DateTimeFormatter formatter(String pattern) {
+        return FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+    }
+}
@@ -2,7 +2,9 @@ package com.crm.utils;
 
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
 import com.alibaba.excel.support.ExcelTypeEnum;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import com.alibaba.excel.write.metadata.style.WriteCellStyle;
 import com.alibaba.excel.write.metadata.style.WriteFont;
 import com.alibaba.excel.write.style.HorizontalCellStyleStrategy;
@@ -13,6 +15,7 @@ import org.apache.poi.ss.usermodel.VerticalAlignment;
 
 import java.io.OutputStream;
 import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -23,6 +26,11 @@ import java.util.List;
 * @create: 2025-10-19 10:37
 **/
 public class ExcelUtils {
+    /**
+     * xlsx 单个 sheet 最大行数（不含表头）
+     */
+    private static final int MAX_SHEET_ROWS = 1_000_000;
+
     /**
      * 导出 excel
      *
@@ -33,6 +41,63 @@ public class ExcelUtils {
      * @param clazz     输出数据的模板
      */
     public static void writeExcel(HttpServletResponse response, List<? extends Object> data, String fileName, String sheetName, Class clazz) {
+        try {
+            EasyExcel.write(getOutputStream(fileName, response), clazz).excelType(ExcelTypeEnum.XLS).sheet(sheetName).registerWriteHandler(cellStyleStrategy()).doWrite(data);
+        } catch (Exception e) {
+            throw new ServerException(fileName + "文件导出失败");
+        }
+
+    }
+
+    /**
+     * 流式导出 xlsx
+     * 逐行读取数据，每 chunkSize 行写入一次，底层使用 SXSSF 只在内存保留少量行，
+     * 超过单个 sheet 行数上限时自动新建 sheet
+     *
+     * @param response
+     * @param data      输出数据，如：MyBatis Cursor
+     * @param fileName  excel 文件名称
+     * @param sheetName excel sheet 名称
+     * @param clazz     输出数据的模板
+     * @param chunkSize 每批写入行数
+     */
+    public static <T> void writeExcelStream(HttpServletResponse response, Iterable<T> data, String fileName, String sheetName, Class<T> clazz, int chunkSize) {
+        try (ExcelWriter excelWriter = EasyExcel.write(getOutputStream(fileName, ExcelTypeEnum.XLSX, response), clazz)
+                .excelType(ExcelTypeEnum.XLSX).registerWriteHandler(cellStyleStrategy()).build()) {
+            int sheetNo = 0;
+            int sheetRows = 0;
+            WriteSheet writeSheet = EasyExcel.writerSheet(sheetNo, sheetName).build();
+            List<T> chunk = new ArrayList<>(chunkSize);
+            for (T row : data) {
+                chunk.add(row);
+                if (chunk.size() < chunkSize) {
+                    continue;
+                }
+                if (sheetRows + chunk.size() > MAX_SHEET_ROWS) {
+                    sheetNo++;
+                    sheetRows = 0;
+                    writeSheet = EasyExcel.writerSheet(sheetNo, sheetName + (sheetNo + 1)).build();
+                }
+                excelWriter.write(chunk, writeSheet);
+                sheetRows += chunk.size();
+                chunk.clear();
+            }
+            if (!chunk.isEmpty() || sheetRows == 0) {
+                if (sheetRows + chunk.size() > MAX_SHEET_ROWS) {
+                    sheetNo++;
+                    writeSheet = EasyExcel.writerSheet(sheetNo, sheetName + (sheetNo + 1)).build();
+                }
+                excelWriter.write(chunk, writeSheet);
+            }
+        } catch (Exception e) {
+            throw new ServerException(fileName + "文件导出失败");
+        }
+    }
+
+    /**
+     * 表头、内容居中样式
+     */
+    private static HorizontalCellStyleStrategy cellStyleStrategy() {
         //        表头样式
         WriteCellStyle headWriteCellStyle = new WriteCellStyle();
         WriteFont writeFont = new WriteFont();
@@ -47,21 +112,21 @@ public class ExcelUtils {
         contentWriteCellStyle.setHorizontalAlignment(HorizontalAlignment.CENTER);
         contentWriteCellStyle.setVerticalAlignment(VerticalAlignment.CENTER);
         contentWriteCellStyle.setWrapped(true);
-        HorizontalCellStyleStrategy horizontalCellStyleStrategy = new HorizontalCellStyleStrategy(headWriteCellStyle, contentWriteCellStyle);
-        try {
-            EasyExcel.write(getOutputStream(fileName, response), clazz).excelType(ExcelTypeEnum.XLS).sheet(sheetName).registerWriteHandler(horizontalCellStyleStrategy).doWrite(data);
-        } catch (Exception e) {
-            throw new ServerException(fileName + "文件导出失败");
-        }
-
+        return new HorizontalCellStyleStrategy(headWriteCellStyle, contentWriteCellStyle);
     }
 
     private static OutputStream getOutputStream(String fileName, HttpServletResponse response) throws Exception {
+        return getOutputStream(fileName, ExcelTypeEnum.XLS, response);
+    }
+
+    private static OutputStream getOutputStream(String fileName, ExcelTypeEnum excelType, HttpServletResponse response) throws Exception {
         fileName = URLEncoder.encode(fileName, "UTF-8");
-        response.setContentType("application/vnd.ms-excel;charset=utf-8");
+        response.setContentType(excelType == ExcelTypeEnum.XLSX
+                ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet;charset=utf-8"
+                : "application/vnd.ms-excel;charset=utf-8");
         response.setCharacterEncoding("utf-8");
         fileName = URLEncoder.encode(fileName, "UTF-8");
-        response.setHeader("Content-Disposition", "attachment;filename=" + fileName + ".xls");
+        response.setHeader("Content-Disposition", "attachment;filename=" + fileName + excelType.getValue());
         return response.getOutputStream();
     }
 }
@@ -1,266 +0,0 @@
-package com.crm.utils;
-
-import org.apache.commons.lang3.StringUtils;
-import org.apache.http.HttpEntity;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.*;
-import java.net.ConnectException;
-import java.net.SocketTimeoutException;
-import java.net.URL;
-import java.net.URLConnection;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-
-/**
- * 通用http发送方法
- *
- * @author ruoyi
- */
-public class HttpUtils {
-    private static final Logger log = LoggerFactory.getLogger(HttpUtils.class);
-
-    /**
-     * 向指定 URL 发送GET方法的请求
-     *
-     * @param url 发送请求的 URL
-     * @return 所代表远程资源的响应结果
-     */
-    public static String sendGet(String url) {
-        return sendGet(url, StringUtils.EMPTY);
-    }
-
-    /**
-     * 向指定 URL 发送GET方法的请求
-     *
-     * @param url   发送请求的 URL
-     * @param param 请求参数，请求参数应该是 name1=value1&name2=value2 的形式。
-     * @return 所代表远程资源的响应结果
-     */
-    public static String sendGet(String url, String param) {
-        return sendGet(url, param, "UTF-8");
-    }
-
-    /**
-     * 向指定 URL 发送GET方法的请求
-     *
-     * @param url         发送请求的 URL
-     * @param param       请求参数，请求参数应该是 name1=value1&name2=value2 的形式。
-     * @param contentType 编码类型
-     * @return 所代表远程资源的响应结果
-     */
-    public static String sendGet(String url, String param, String contentType) {
-        StringBuilder result = new StringBuilder();
-        BufferedReader in = null;
-        try {
-            String urlNameString = StringUtils.isNotBlank(param) ? url + "?" + param : url;
-            log.info("sendGet - {}", urlNameString);
-            URL realUrl = new URL(urlNameString);
-            URLConnection connection = realUrl.openConnection();
-            connection.setRequestProperty("accept", "*/*");
-            connection.setRequestProperty("connection", "Keep-Alive");
-            connection.setRequestProperty("user-agent", "Mozilla/4.0 (compatible; MSIE 6.0; Windows NT 5.1;SV1)");
-            connection.connect();
-            in = new BufferedReader(new InputStreamReader(connection.getInputStream(), contentType));
-            String line;
-            while ((line = in.readLine()) != null) {
-                result.append(line);
-            }
-            log.info("recv - {}", result);
-        } catch (ConnectException e) {
-            log.error("调用HttpUtils.sendGet ConnectException, url={},param={}", url, param, e);
-        } catch (SocketTimeoutException e) {
-            log.error("调用HttpUtils.sendGet SocketTimeoutException, url={},param={}", url, param, e);
-        } catch (IOException e) {
-            log.error("调用HttpUtils.sendGet IOException, url={},param={}", url, param, e);
-        } catch (Exception e) {
-            log.error("调用HttpsUtil.sendGet Exception, url={},param={}", url, param, e);
-        } finally {
-            try {
-                if (in != null) {
-                    in.close();
-                }
-            } catch (Exception ex) {
-                log.error("调用in.close Exception, url=" + url + ",param=" + param, ex);
-            }
-        }
-        return result.toString();
-    }
-
-    /**
-     * 向指定 URL 发送POST方法的请求
-     *
-     * @param url   发送请求的 URL
-     * @param param 请求参数，请求参数应该是 name1=value1&name2=value2 的形式。
-     * @return 所代表远程资源的响应结果
-     */
-    public static String sendPost(String url, String param) {
-        PrintWriter out = null;
-        BufferedReader in = null;
-        StringBuilder result = new StringBuilder();
-        try {
-            log.info("sendPost - {}", url);
-            URL realUrl = new URL(url);
-            URLConnection conn = realUrl.openConnection();
-            conn.setRequestProperty("accept", "*/*");
-            conn.setRequestProperty("connection", "Keep-Alive");
-            conn.setRequestProperty("user-agent", "Mozilla/4.0 (compatible; MSIE 6.0; Windows NT 5.1;SV1)");
-            conn.setRequestProperty("Accept-Charset", "utf-8");
-            conn.setRequestProperty("contentType", "utf-8");
-            conn.setDoOutput(true);
-            conn.setDoInput(true);
-            out = new PrintWriter(conn.getOutputStream());
-            out.print(param);
-            out.flush();
-            in = new BufferedReader(new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8));
-            String line;
-            while ((line = in.readLine()) != null) {
-                result.append(line);
-            }
-            log.info("recv - {}", result);
-        } catch (ConnectException e) {
-            log.error("调用HttpUtils.sendPost ConnectException, url=" + url + ",param=" + param, e);
-        } catch (SocketTimeoutException e) {
-            log.error("调用HttpUtils.sendPost SocketTimeoutException, url=" + url + ",param=" + param, e);
-        } catch (IOException e) {
-            log.error("调用HttpUtils.sendPost IOException, url=" + url + ",param=" + param, e);
-        } catch (Exception e) {
-            log.error("调用HttpsUtil.sendPost Exception, url=" + url + ",param=" + param, e);
-        } finally {
-            try {
-                if (out != null) {
-                    out.close();
-                }
-                if (in != null) {
-                    in.close();
-                }
-            } catch (IOException ex) {
-                log.error("调用in.close Exception, url=" + url + ",param=" + param, ex);
-            }
-        }
-        return result.toString();
-    }
-
-    public static String sendPostByJSON(String url, String body) throws IOException {
-        String responseBody = "";
-        CloseableHttpClient httpClient = HttpClients.createDefault();
-
-        // 创建HttpPost对象，并设置URL
-        HttpPost httpPost = new HttpPost(url);
-
-        // 设置请求头
-        httpPost.setHeader("Content-Type", "application/json;charset=utf-8");
-
-        try {
-            // 设置请求体
-            StringEntity requestEntity;
-            if (body == null) {
-                requestEntity = null;
-            } else {
-                requestEntity = new StringEntity(body, ContentType.APPLICATION_JSON);
-            }
-            httpPost.setEntity(requestEntity);
-
-            // 发送请求并获取响应
-            CloseableHttpResponse response = httpClient.execute(httpPost);
-
-            // 处理响应
-            HttpEntity responseEntity = response.getEntity();
-            if (responseEntity != null) {
-                responseBody = EntityUtils.toString(responseEntity);
-            }
-
-            // 关闭响应和HttpClient
-            response.close();
-            httpClient.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return responseBody;
-    }
-
-    public static String sendPost(String url, Map<String, String> params) throws IOException {
-        String result = null;
-
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-        HttpPost httpPost = new HttpPost(url);
-        RequestConfig requestConfig = RequestConfig.custom()
-                .setConnectTimeout(20000).setConnectionRequestTimeout(3000)
-                .setSocketTimeout(5000).build();
-        httpPost.setConfig(requestConfig);
-
-        List<NameValuePair> nvps = new ArrayList<>();
-        for (String key : params.keySet()) {
-            nvps.add(new BasicNameValuePair(key, params.get(key)));
-        }
-
-        try {
-            httpPost.setEntity(new UrlEncodedFormEntity(nvps));
-            CloseableHttpResponse response = httpclient.execute(httpPost);
-            HttpEntity entity = response.getEntity();
-            // do something useful with the response body
-            result = EntityUtils.toString(entity);
-
-            response.close();
-        } catch (UnsupportedEncodingException e) {
-
-        } catch (ClientProtocolException e) {
-
-        } finally {
-            httpclient.close();
-        }
-
-        return result;
-    }
-
-    /**
-     * 发送 POST 请求（表单格式，Content-Type: application/x-www-form-urlencoded）
-     *
-     * @param url    请求 URL
-     * @param params 请求参数，key-value 形式
-     * @return 响应内容
-     */
-    public static String sendFormPost(String url, Map<String, Object> params) {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPost httpPost = new HttpPost(url);
-            httpPost.setHeader("Content-Type", "application/x-www-form-urlencoded");
-            httpPost.setHeader("User-Agent", "ApacheHttpClient/4.5");
-
-            // 构建表单参数
-            List<BasicNameValuePair> formParams = new ArrayList<>();
-            if (params != null) {
-                for (Map.Entry<String, Object> entry : params.entrySet()) {
-                    formParams.add(new BasicNameValuePair(entry.getKey(), entry.getValue().toString()));
-                }
-            }
-            httpPost.setEntity(new UrlEncodedFormEntity(formParams, StandardCharsets.UTF_8));
-
-            // 执行请求
-            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-                HttpEntity entity = response.getEntity();
-                String result = entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : null;
-                log.info("表单 POST 请求{}成功，响应内容：{}", url, result);
-                return result;
-            }
-        } catch (Exception e) {
-            log.error("表单 POST 请求失败，URL：{}，参数：{}", url, params, e);
-            return null;
-        }
-    }
-
-}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.crm.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * 时间序列工具类
+ * 将按时间分组的统计结果对齐到 X 轴刻度，缺失的刻度补 0；
+ * 刻度先建索引再单次遍历结果，复杂度为 O(刻度数 + 结果数)
+ *
+ * @author crm
+ */
+public class TimeSeriesUtils {
+
+    /**
+     * 按刻度对齐统计结果，没有值默认填充0
+     *
+     * @param buckets 刻度列表，如：getDatesInRange 的返回值
+     * @param rows    统计结果
+     * @param key     结果所属刻度，如：CustomerTrendVO::getTradeTime
+     * @param count   结果数值，如：CustomerTrendVO::getTradeCount
+     * @return 与刻度一一对应的数值
+     */
+    public static <T> int[] fill(List<String> buckets, List<T> rows, Function<T, String> key, ToIntFunction<T> count) {
+        int[] values = new int[buckets.size()];
+        if (rows == null || rows.isEmpty()) {
+            return values;
+        }
+        Map<String, Integer> index = new HashMap<>(buckets.size() * 4 / 3 + 1);
+        for (int i = 0; i < buckets.size(); i++) {
+            index.putIfAbsent(buckets.get(i), i);
+        }
+        for (T row : rows) {
+            Integer i = index.get(key.apply(row));
+            // 同一刻度多行时累加，刻度外的数据忽略
+            if (i != null) {
+                values[i] += count.applyAsInt(row);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 按刻度对齐统计结果，返回列表形式
+     */
+    public static <T> List<Integer> fillList(List<String> buckets, List<T> rows, Function<T, String> key, ToIntFunction<T> count) {
+        int[] values = fill(buckets, rows, key, count);
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
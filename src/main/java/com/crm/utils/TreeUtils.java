@@ -3,7 +3,11 @@ package com.crm.utils;
 
 import com.crm.common.model.TreeNode;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,29 +24,50 @@ public class TreeUtils {
      * 根据pid，构建树节点
      */
     public static <T extends TreeNode<T>> List<T> build(List<T> treeNodes, Integer pid) {
+        return build(treeNodes, pid, null);
+    }
+
+    /**
+     * 根据pid，构建树节点，同级节点按 comparator 稳定排序
+     * 先按 parentId 分组，再从 pid 开始逐层挂载子节点，复杂度 O(n)，不使用递归
+     *
+     * @param comparator 同级排序规则，为 null 时保持原顺序
+     */
+    public static <T extends TreeNode<T>> List<T> build(List<T> treeNodes, Integer pid, Comparator<? super T> comparator) {
         // pid不能为空
         AssertUtils.isNull(pid, "parentId");
 
-        List<T> treeList = new ArrayList<>();
+        // parentId -> 子节点列表
+        Map<Integer, List<T>> childrenMap = new HashMap<>(treeNodes.size() * 4 / 3 + 1);
         for (T treeNode : treeNodes) {
-            if (pid.equals(treeNode.getParentId())) {
-                treeList.add(findChildren(treeNodes, treeNode));
+            childrenMap.computeIfAbsent(treeNode.getParentId(), key -> new ArrayList<>()).add(treeNode);
+        }
+
+        List<T> treeList = sorted(childrenMap.getOrDefault(pid, new ArrayList<>()), comparator);
+        Deque<T> stack = new ArrayDeque<>(treeList);
+        while (!stack.isEmpty()) {
+            T node = stack.pop();
+            List<T> children = childrenMap.remove(node.getId());
+            if (children == null) {
+                continue;
+            }
+            for (T child : sorted(children, comparator)) {
+                // 跳过以自身为上级的节点，避免死循环
+                if (!child.getId().equals(node.getId())) {
+                    node.getChildren().add(child);
+                    stack.push(child);
+                }
             }
         }
 
         return treeList;
     }
 
-    /**
-     * 查找子节点
-     */
-    private static <T extends TreeNode<T>> T findChildren(List<T> treeNodes, T rootNode) {
-        for (T treeNode : treeNodes) {
-            if (rootNode.getId().equals(treeNode.getParentId())) {
-                rootNode.getChildren().add(findChildren(treeNodes, treeNode));
-            }
+    private static <T> List<T> sorted(List<T> list, Comparator<? super T> comparator) {
+        if (comparator != null) {
+            list.sort(comparator);
         }
-        return rootNode;
+        return list;
     }
 
     /**
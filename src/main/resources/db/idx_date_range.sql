@@ -0,0 +1,11 @@
+-- 按时间区间查询的复合索引
+-- 日期条件统一写成 col >= ? AND col < ?（见 DateRange），以下索引可直接走范围扫描
+ALTER TABLE `t_customer`
+    ADD INDEX `idx_delete_flag_create_time` (`delete_flag`, `create_time`);
+
+ALTER TABLE `t_lead`
+    ADD INDEX `idx_delete_flag_create_time` (`delete_flag`, `create_time`);
+
+ALTER TABLE `t_contract`
+    ADD INDEX `idx_delete_flag_create_time` (`delete_flag`, `create_time`),
+    ADD INDEX `idx_owner_status_update_time` (`owner_id`, `status`, `update_time`);
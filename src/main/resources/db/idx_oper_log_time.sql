@@ -0,0 +1,3 @@
+-- 操作日志游标分页使用的索引（OperLogServiceImpl.seek），按 (oper_time, id) 倒序定位下一页
+ALTER TABLE `sys_oper_log`
+    ADD INDEX `idx_oper_time_id` (`oper_time`, `id`);
@@ -0,0 +1,4 @@
+-- 商品定时上下架预载查询使用的索引（ProductShelfScheduler）
+ALTER TABLE `t_product`
+    ADD INDEX `idx_on_shelf_time` (`on_shelf_time`),
+    ADD INDEX `idx_off_shelf_time` (`off_shelf_time`);
@@ -0,0 +1,27 @@
+-- 操作日志按月分区（OperLogPartitionManager 维护）
+-- 分区列必须包含在主键中，主键改为 (id, oper_time)；此后由定时任务提前创建后续月份分区、
+-- 归档并删除超过保留期的分区。p_future 用于兜底，正常情况下保持为空
+ALTER TABLE `sys_oper_log`
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (`id`, `oper_time`);
+
+ALTER TABLE `sys_oper_log`
+    PARTITION BY RANGE COLUMNS (`oper_time`) (
+    PARTITION `p_history` VALUES LESS THAN ('2025-10-01'),
+    PARTITION `p202510` VALUES LESS THAN ('2025-11-01'),
+    PARTITION `p202511` VALUES LESS THAN ('2025-12-01'),
+    PARTITION `p202512` VALUES LESS THAN ('2026-01-01'),
+    PARTITION `p202601` VALUES LESS THAN ('2026-02-01'),
+    PARTITION `p202602` VALUES LESS THAN ('2026-03-01'),
+    PARTITION `p202603` VALUES LESS THAN ('2026-04-01'),
+    PARTITION `p202604` VALUES LESS THAN ('2026-05-01'),
+    PARTITION `p202605` VALUES LESS THAN ('2026-06-01'),
+    PARTITION `p202606` VALUES LESS THAN ('2026-07-01'),
+    PARTITION `p202607` VALUES LESS THAN ('2026-08-01'),
+    PARTITION `p202608` VALUES LESS THAN ('2026-09-01'),
+    PARTITION `p202609` VALUES LESS THAN ('2026-10-01'),
+    PARTITION `p202610` VALUES LESS THAN ('2026-11-01'),
+    PARTITION `p202611` VALUES LESS THAN ('2026-12-01'),
+    PARTITION `p202612` VALUES LESS THAN ('2027-01-01'),
+    PARTITION `p_future` VALUES LESS THAN (MAXVALUE)
+    );
@@ -0,0 +1,56 @@
+-- 仪表盘每日统计汇总表
+-- 由 DailyMetricsStore 在客户/线索/合同写入提交后增量累加，DailyMetricsJob 定时按源表重建
+CREATE TABLE IF NOT EXISTS `t_daily_metrics`
+(
+    `stat_date`       DATE           NOT NULL COMMENT '统计日期',
+    `customer_count`  INT            NOT NULL DEFAULT 0 COMMENT '新增客户数',
+    `lead_count`      INT            NOT NULL DEFAULT 0 COMMENT '新增线索数',
+    `contract_count`  INT            NOT NULL DEFAULT 0 COMMENT '新增合同数',
+    `contract_amount` DECIMAL(15, 2) NOT NULL DEFAULT 0 COMMENT '新增合同金额',
+    `approved_count`  INT            NOT NULL DEFAULT 0 COMMENT '审核通过合同数',
+    `rejected_count`  INT            NOT NULL DEFAULT 0 COMMENT '审核拒绝合同数',
+    `update_time`     DATETIME       NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`stat_date`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='每日统计汇总';
+
+-- 一次性回填：按源表重建全部历史日期，口径与 DashboardAggregator 一致；可重复执行
+INSERT INTO t_daily_metrics
+    (stat_date, customer_count, lead_count, contract_count, contract_amount, approved_count, rejected_count)
+SELECT day,
+       SUM(customer_count),
+       SUM(lead_count),
+       SUM(contract_count),
+       SUM(contract_amount),
+       SUM(approved_count),
+       SUM(rejected_count)
+FROM (SELECT DATE(create_time) AS day, COUNT(*) AS customer_count, 0 AS lead_count, 0 AS contract_count,
+             0 AS contract_amount, 0 AS approved_count, 0 AS rejected_count
+      FROM t_customer
+      WHERE delete_flag = 0
+      GROUP BY DATE(create_time)
+      UNION ALL
+      SELECT DATE(create_time), 0, COUNT(*), 0, 0, 0, 0
+      FROM t_lead
+      WHERE delete_flag = 0
+      GROUP BY DATE(create_time)
+      UNION ALL
+      SELECT DATE(create_time), 0, 0, COUNT(*), IFNULL(SUM(amount), 0), 0, 0
+      FROM t_contract
+      WHERE delete_flag = 0
+      GROUP BY DATE(create_time)
+      UNION ALL
+      SELECT DATE(update_time), 0, 0, 0, 0, SUM(status = 2), SUM(status = 3)
+      FROM t_contract
+      WHERE delete_flag = 0
+        AND status IN (2, 3)
+      GROUP BY DATE(update_time)) source
+WHERE day IS NOT NULL
+GROUP BY day
+ON DUPLICATE KEY UPDATE
+    customer_count  = VALUES(customer_count),
+    lead_count      = VALUES(lead_count),
+    contract_count  = VALUES(contract_count),
+    contract_amount = VALUES(contract_amount),
+    approved_count  = VALUES(approved_count),
+    rejected_count  = VALUES(rejected_count);
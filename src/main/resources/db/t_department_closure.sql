@@ -0,0 +1,23 @@
+-- 部门闭包表：每个部门与其所有祖先（含自身）各一行
+-- 由 DepartmentService 在新增、移动、删除部门的事务内维护，子树查询、移动、删除均为单条集合语句
+CREATE TABLE IF NOT EXISTS `t_department_closure`
+(
+    `ancestor_id`   INT NOT NULL COMMENT '祖先部门id',
+    `descendant_id` INT NOT NULL COMMENT '子孙部门id',
+    `depth`         INT NOT NULL COMMENT '层级距离，自身为0',
+    PRIMARY KEY (`ancestor_id`, `descendant_id`),
+    KEY `idx_descendant` (`descendant_id`, `ancestor_id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='部门闭包表';
+
+-- 按 parent_id 初始化已有部门
+INSERT IGNORE INTO `t_department_closure` (`ancestor_id`, `descendant_id`, `depth`)
+WITH RECURSIVE tree AS (SELECT id AS ancestor_id, id AS descendant_id, 0 AS depth
+                        FROM t_department
+                        WHERE delete_flag = 0
+                        UNION ALL
+                        SELECT tree.ancestor_id, d.id, tree.depth + 1
+                        FROM tree
+                                 JOIN t_department d ON d.parent_id = tree.descendant_id AND d.delete_flag = 0)
+SELECT ancestor_id, descendant_id, depth
+FROM tree;
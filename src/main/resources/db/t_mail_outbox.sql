@@ -0,0 +1,19 @@
+-- 邮件发件箱：业务事务内写入待发送邮件，提交后由 MailOutbox 投递，失败按退避时间重试
+CREATE TABLE IF NOT EXISTS `t_mail_outbox`
+(
+    `id`                BIGINT       NOT NULL AUTO_INCREMENT COMMENT '主键',
+    `to_address`        VARCHAR(255) NOT NULL COMMENT '收件人',
+    `subject`           VARCHAR(255) NOT NULL COMMENT '主题',
+    `content`           TEXT         NOT NULL COMMENT '正文',
+    `status`            TINYINT      NOT NULL DEFAULT 0 COMMENT '0-待发送，1-已发送，2-发送失败',
+    `attempts`          INT          NOT NULL DEFAULT 0 COMMENT '已失败次数',
+    `next_attempt_time` DATETIME     NOT NULL COMMENT '下次投递时间，投递中时为领取租约到期时间',
+    `claim_token`       VARCHAR(36)           DEFAULT NULL COMMENT '投递中的领取标识',
+    `last_error`        VARCHAR(512)          DEFAULT NULL COMMENT '最近一次失败原因',
+    `create_time`       DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time`       DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_status_next_attempt` (`status`, `next_attempt_time`),
+    KEY `idx_claim_token` (`claim_token`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='邮件发件箱';
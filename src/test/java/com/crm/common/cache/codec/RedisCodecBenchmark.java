@@ -0,0 +1,107 @@
+package com.crm.common.cache.codec;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONWriter;
+import com.crm.security.user.ManagerDetail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Redis 值格式对比：以登录缓存中的 ManagerDetail 为样本，输出各格式的单条字节数及编码、解码耗时。
+ * 解码包含转换为 ManagerDetail 的开销，与 TokenStoreCache 的读取路径一致。
+ * <p>
+ * 运行：mvn test-compile 后执行本类 main 方法，可选参数为权限数与迭代次数，如 {@code 40 200000}
+ *
+ * @author crm
+ */
+public class RedisCodecBenchmark {
+
+    private record Variant(String name, Function<Object, byte[]> encoder, Function<byte[], Object> decoder) {
+    }
+
+    public static void main(String[] args) {
+        int authorities = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        ManagerDetail sample = sample(authorities);
+
+        CodecRedisSerializer json = new CodecRedisSerializer(new JsonValueCodec(), -1);
+        CodecRedisSerializer jsonb = new CodecRedisSerializer(new JsonbValueCodec(), -1);
+        CodecRedisSerializer jsonbDeflate = new CodecRedisSerializer(new JsonbValueCodec(), 0);
+        List<Variant> variants = List.of(
+                // 切换前的 FastJsonRedisSerializer：WriteClassName 文本，读取为 Object
+                new Variant("legacy WriteClassName JSON",
+                        value -> JSON.toJSONString(value, JSONWriter.Feature.WriteClassName).getBytes(StandardCharsets.UTF_8),
+                        bytes -> JSON.to(Object.class, new String(bytes, StandardCharsets.UTF_8))),
+                new Variant("JSON", json::serialize, json::deserialize),
+                new Variant("JSONB", jsonb::serialize, jsonb::deserialize),
+                new Variant("JSONB + deflate", jsonbDeflate::serialize, jsonbDeflate::deserialize));
+
+        System.out.printf("ManagerDetail, %d authorities, %d iterations%n", authorities, iterations);
+        System.out.printf("%-28s %10s %14s %14s%n", "format", "bytes", "encode ns/op", "decode ns/op");
+        for (Variant variant : variants) {
+            byte[] bytes = variant.encoder().apply(sample);
+            ManagerDetail decoded = JSON.to(ManagerDetail.class, variant.decoder().apply(bytes));
+            if (!sample.getAuthoritySet().equals(decoded.getAuthoritySet())) {
+                throw new IllegalStateException(variant.name() + " 往返结果不一致");
+            }
+            // 预热
+            measureEncode(variant, sample, iterations / 4);
+            measureDecode(variant, bytes, iterations / 4);
+            double encodeNs = measureEncode(variant, sample, iterations);
+            double decodeNs = measureDecode(variant, bytes, iterations);
+            System.out.printf("%-28s %10d %14.0f %14.0f%n", variant.name(), bytes.length, encodeNs, decodeNs);
+        }
+    }
+
+    private static double measureEncode(Variant variant, ManagerDetail sample, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += variant.encoder().apply(sample).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(sink);
+        return (double) elapsed / iterations;
+    }
+
+    private static double measureDecode(Variant variant, byte[] bytes, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ManagerDetail detail = JSON.to(ManagerDetail.class, variant.decoder().apply(bytes));
+            sink += detail.getId();
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(sink);
+        return (double) elapsed / iterations;
+    }
+
+    private static void consume(long sink) {
+        if (sink == Long.MIN_VALUE) {
+            System.out.println(sink);
+        }
+    }
+
+    private static ManagerDetail sample(int authorities) {
+        ManagerDetail detail = new ManagerDetail();
+        detail.setId(1);
+        detail.setAccount("admin");
+        detail.setUsername("admin");
+        detail.setRealName("系统管理员");
+        detail.setPassword("$2a$10$7JB720yubVSZvUI0rEqK/.VqGOZTH.ulu33dHOiBE8ByOhJIrdAu2");
+        detail.setStatus(1);
+        Set<String> authoritySet = new LinkedHashSet<>();
+        String[] modules = {"customer", "lead", "contract", "product", "payment", "sys:manager", "sys:role", "sys:menu"};
+        String[] actions = {"page", "add", "edit", "remove", "export"};
+        for (int i = 0; authoritySet.size() < authorities; i++) {
+            authoritySet.add(modules[i % modules.length] + ":" + actions[(i / modules.length) % actions.length]
+                    + (i >= modules.length * actions.length ? ":" + i : ""));
+        }
+        detail.setAuthoritySet(authoritySet);
+        return detail;
+    }
+}
@@ -0,0 +1,148 @@
+package com.crm.utils;
+
+import com.crm.common.model.TreeNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * 树构建对比：原递归 findChildren（每个节点扫描全部节点，O(n²)）与按 parentId 分组的 TreeUtils.build（O(n)）。
+ * 节点随机挂在已生成的节点下并打乱顺序，先校验两种实现得到的树结构及同级顺序一致，再输出单次构建耗时。
+ * <p>
+ * 运行：mvn test-compile 后执行本类 main 方法，可选参数为节点数列表，如 {@code 1000 10000 100000}
+ *
+ * @author crm
+ */
+public class TreeUtilsBenchmark {
+
+    /**
+     * 每种规模每种实现至少运行的时长
+     */
+    private static final long MIN_RUN_NANOS = 1_000_000_000L;
+
+    private static class Node extends TreeNode<Node> {
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1_000, 10_000, 100_000};
+
+        System.out.printf("%10s %18s %18s %10s%n", "nodes", "recursive ms/op", "build ms/op", "speedup");
+        for (int size : sizes) {
+            int[] parentIds = parentIds(size, new Random(size));
+            List<Node> expected = recursiveBuild(nodes(parentIds), 0);
+            List<Node> actual = TreeUtils.build(nodes(parentIds), 0);
+            if (!sameTree(expected, actual)) {
+                throw new IllegalStateException(size + " 个节点时两种实现的结果不一致");
+            }
+            // 预热
+            measure(parentIds, list -> TreeUtils.build(list, 0));
+            double recursiveMs = measure(parentIds, list -> recursiveBuild(list, 0));
+            double buildMs = measure(parentIds, list -> TreeUtils.build(list, 0));
+            System.out.printf("%10d %18.3f %18.3f %9.0fx%n", size, recursiveMs, buildMs, recursiveMs / buildMs);
+        }
+    }
+
+    /**
+     * 重复构建直到累计时长超过 MIN_RUN_NANOS，返回平均每次毫秒数；节点列表在计时外重新生成
+     */
+    private static double measure(int[] parentIds, Function<List<Node>, List<Node>> builder) {
+        long elapsed = 0;
+        int runs = 0;
+        long sink = 0;
+        while (elapsed < MIN_RUN_NANOS) {
+            List<Node> list = nodes(parentIds);
+            long start = System.nanoTime();
+            sink += builder.apply(list).size();
+            elapsed += System.nanoTime() - start;
+            runs++;
+        }
+        if (sink < 0) {
+            System.out.println(sink);
+        }
+        return elapsed / 1e6 / runs;
+    }
+
+    /**
+     * parentIds[i] 为 id = i + 1 的节点的上级，0 为顶级
+     */
+    private static int[] parentIds(int size, Random random) {
+        int[] parentIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            parentIds[i] = i == 0 || random.nextInt(20) == 0 ? 0 : random.nextInt(i) + 1;
+        }
+        return parentIds;
+    }
+
+    /**
+     * 按固定种子打乱顺序，模拟查询结果中上下级交错出现
+     */
+    private static List<Node> nodes(int[] parentIds) {
+        List<Node> list = new ArrayList<>(parentIds.length);
+        for (int i = 0; i < parentIds.length; i++) {
+            Node node = new Node();
+            node.setId(i + 1);
+            node.setParentId(parentIds[i]);
+            list.add(node);
+        }
+        Collections.shuffle(list, new Random(parentIds.length));
+        return list;
+    }
+
+    /**
+     * 优化前的 TreeUtils.build(treeNodes, pid)
+     */
+    private static <T extends TreeNode<T>> List<T> recursiveBuild(List<T> treeNodes, Integer pid) {
+        List<T> treeList = new ArrayList<>();
+        for (T treeNode : treeNodes) {
+            if (pid.equals(treeNode.getParentId())) {
+                treeList.add(findChildren(treeNodes, treeNode));
+            }
+        }
+        return treeList;
+    }
+
+    private static <T extends TreeNode<T>> T findChildren(List<T> treeNodes, T rootNode) {
+        for (T treeNode : treeNodes) {
+            if (rootNode.getId().equals(treeNode.getParentId())) {
+                rootNode.getChildren().add(findChildren(treeNodes, treeNode));
+            }
+        }
+        return rootNode;
+    }
+
+    /**
+     * 逐层比较 id 及同级顺序
+     */
+    private static boolean sameTree(List<Node> expected, List<Node> actual) {
+        Deque<List<Node>[]> stack = new ArrayDeque<>();
+        stack.push(pair(expected, actual));
+        while (!stack.isEmpty()) {
+            List<Node>[] lists = stack.pop();
+            if (lists[0].size() != lists[1].size()) {
+                return false;
+            }
+            for (int i = 0; i < lists[0].size(); i++) {
+                Node left = lists[0].get(i);
+                Node right = lists[1].get(i);
+                if (!left.getId().equals(right.getId())) {
+                    return false;
+                }
+                stack.push(pair(left.getChildren(), right.getChildren()));
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Node>[] pair(List<Node> left, List<Node> right) {
+        return new List[]{left, right};
+    }
+}